@@ -0,0 +1,59 @@
+package com.lifeline.openicu.ambulance.config;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Bed reservation settings, bound from openicu.reservation.* properties.
+ * Example: openicu.reservation.ttl.ICU=20m
+ */
+@Component
+@ConfigurationProperties(prefix = "openicu.reservation")
+public class ReservationProperties {
+
+    // Hold time for bed types without an explicit entry in ttl
+    private Duration defaultTtl = Duration.ofMinutes(15);
+
+    // Per bed type hold time
+    private Map<BedType, Duration> ttl = new EnumMap<>(BedType.class);
+
+    // Maximum number of reservations expired in one database round trip
+    private int expiryBatchSize = 500;
+
+    /**
+     * Hold time for a reservation of the given bed type.
+     */
+    public Duration ttlFor(BedType bedType) {
+        return ttl.getOrDefault(bedType, defaultTtl);
+    }
+
+    // Getters and Setters
+    public Duration getDefaultTtl() {
+        return defaultTtl;
+    }
+
+    public void setDefaultTtl(Duration defaultTtl) {
+        this.defaultTtl = defaultTtl;
+    }
+
+    public Map<BedType, Duration> getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Map<BedType, Duration> ttl) {
+        this.ttl = ttl;
+    }
+
+    public int getExpiryBatchSize() {
+        return expiryBatchSize;
+    }
+
+    public void setExpiryBatchSize(int expiryBatchSize) {
+        this.expiryBatchSize = expiryBatchSize;
+    }
+}
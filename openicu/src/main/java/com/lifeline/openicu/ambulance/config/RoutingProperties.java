@@ -0,0 +1,139 @@
+package com.lifeline.openicu.ambulance.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ambulance routing settings, bound from openicu.routing.* properties.
+ * Example: openicu.routing.strategy=sql
+ */
+@Component
+@ConfigurationProperties(prefix = "openicu.routing")
+public class RoutingProperties {
+
+    /**
+     * Where routing candidates are computed.
+     * INDEX uses the in-memory spatial and bed availability indexes, SQL runs a single
+     * set-based query against the database.
+     */
+    public enum Strategy {
+        INDEX,
+        SQL
+    }
+
+    private Strategy strategy = Strategy.INDEX;
+
+    // Ranked fallback hospitals returned with each match
+    private int alternatives = 3;
+
+    // Preprocessed road graph file; when set, hospitals are ranked by road travel time
+    private String roadGraph;
+
+    // Landmarks precomputed for travel-time search; more give tighter bounds at a memory cost
+    private int landmarks = 8;
+
+    // Travel-time searches run at once; each holds search state sized to the road graph
+    private int travelTimeSearches = Runtime.getRuntime().availableProcessors();
+
+    private Scoring scoring = new Scoring();
+
+    // Getters and Setters
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public int getAlternatives() {
+        return alternatives;
+    }
+
+    public void setAlternatives(int alternatives) {
+        this.alternatives = alternatives;
+    }
+
+    public String getRoadGraph() {
+        return roadGraph;
+    }
+
+    public void setRoadGraph(String roadGraph) {
+        this.roadGraph = roadGraph;
+    }
+
+    public int getLandmarks() {
+        return landmarks;
+    }
+
+    public void setLandmarks(int landmarks) {
+        this.landmarks = landmarks;
+    }
+
+    public int getTravelTimeSearches() {
+        return travelTimeSearches;
+    }
+
+    public void setTravelTimeSearches(int travelTimeSearches) {
+        this.travelTimeSearches = travelTimeSearches;
+    }
+
+    public Scoring getScoring() {
+        return scoring;
+    }
+
+    public void setScoring(Scoring scoring) {
+        this.scoring = scoring;
+    }
+
+    /**
+     * Hospital scoring settings, bound from openicu.routing.scoring.*.
+     * Penalties are in minutes so they trade off directly against travel time.
+     */
+    public static class Scoring {
+
+        // Scorer used when a request does not name one
+        private String defaultScorer = "nearest";
+
+        // Added when the hospital does not list the requested specialty
+        private double specialtyMismatchMinutes = 30;
+
+        // Added when the hospital offers no emergency services
+        private double noEmergencyMinutes = 10;
+
+        // Divided by the free bed count, so a hospital down to its last bed pays the full amount
+        private double bedScarcityMinutes = 5;
+
+        public String getDefaultScorer() {
+            return defaultScorer;
+        }
+
+        public void setDefaultScorer(String defaultScorer) {
+            this.defaultScorer = defaultScorer;
+        }
+
+        public double getSpecialtyMismatchMinutes() {
+            return specialtyMismatchMinutes;
+        }
+
+        public void setSpecialtyMismatchMinutes(double specialtyMismatchMinutes) {
+            this.specialtyMismatchMinutes = specialtyMismatchMinutes;
+        }
+
+        public double getNoEmergencyMinutes() {
+            return noEmergencyMinutes;
+        }
+
+        public void setNoEmergencyMinutes(double noEmergencyMinutes) {
+            this.noEmergencyMinutes = noEmergencyMinutes;
+        }
+
+        public double getBedScarcityMinutes() {
+            return bedScarcityMinutes;
+        }
+
+        public void setBedScarcityMinutes(double bedScarcityMinutes) {
+            this.bedScarcityMinutes = bedScarcityMinutes;
+        }
+    }
+}
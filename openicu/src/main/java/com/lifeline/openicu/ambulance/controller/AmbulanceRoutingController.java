@@ -1,12 +1,15 @@
 package com.lifeline.openicu.ambulance.controller;
 
 import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.BatchAmbulanceRequestDTO;
 import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
 import com.lifeline.openicu.ambulance.service.AmbulanceRoutingService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/ambulance")
 public class AmbulanceRoutingController {
@@ -19,14 +22,29 @@ public class AmbulanceRoutingController {
 
     /**
      * Find the nearest hospital with an available bed matching the required type.
-     * Creates a 15-minute reservation for the matched bed.
+     * Creates a reservation for the matched bed, held for the TTL configured for its bed type.
      *
      * @param request contains ambulance location and required bed type
-     * @return matched hospital with reserved bed information
+     * @return matched hospital with reserved bed information and ranked fallback hospitals
      */
     @PostMapping("/find-nearest")
     public ResponseEntity<HospitalMatchDTO> findNearestHospital(@Valid @RequestBody AmbulanceRequestDTO request) {
         HospitalMatchDTO result = ambulanceRoutingService.findNearestHospital(request);
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Assign beds to many ambulances at once, minimising total distance across the batch
+     * subject to the free beds at each hospital. Each matched bed is reserved as for
+     * find-nearest; ambulances that cannot be placed get a match without a hospital.
+     *
+     * @param request the ambulance requests
+     * @return one match per ambulance, in request order
+     */
+    @PostMapping("/find-nearest/batch")
+    public ResponseEntity<List<HospitalMatchDTO>> findNearestHospitals(
+            @Valid @RequestBody BatchAmbulanceRequestDTO request) {
+        List<HospitalMatchDTO> result = ambulanceRoutingService.findNearestHospitals(request.getRequests());
+        return ResponseEntity.ok(result);
+    }
 }
@@ -17,6 +17,10 @@ public class AmbulanceRequestDTO {
     @NotBlank(message = "Required bed type is required")
     private String requiredBedType; // ICU or VENTILATOR
 
+    private String requiredSpecialty; // optional, e.g. Cardiology
+
+    private String scoring; // optional: nearest (default) or balanced
+
     // Default constructor
     public AmbulanceRequestDTO() {
     }
@@ -61,4 +65,20 @@ public class AmbulanceRequestDTO {
     public void setRequiredBedType(String requiredBedType) {
         this.requiredBedType = requiredBedType;
     }
+
+    public String getRequiredSpecialty() {
+        return requiredSpecialty;
+    }
+
+    public void setRequiredSpecialty(String requiredSpecialty) {
+        this.requiredSpecialty = requiredSpecialty;
+    }
+
+    public String getScoring() {
+        return scoring;
+    }
+
+    public void setScoring(String scoring) {
+        this.scoring = scoring;
+    }
 }
@@ -0,0 +1,32 @@
+package com.lifeline.openicu.ambulance.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchAmbulanceRequestDTO {
+
+    @NotEmpty(message = "At least one ambulance request is required")
+    @Size(max = 500, message = "At most 500 ambulance requests per batch")
+    private List<@Valid AmbulanceRequestDTO> requests;
+
+    // Default constructor
+    public BatchAmbulanceRequestDTO() {
+    }
+
+    // All-args constructor
+    public BatchAmbulanceRequestDTO(List<AmbulanceRequestDTO> requests) {
+        this.requests = requests;
+    }
+
+    // Getters and Setters
+    public List<AmbulanceRequestDTO> getRequests() {
+        return requests;
+    }
+
+    public void setRequests(List<AmbulanceRequestDTO> requests) {
+        this.requests = requests;
+    }
+}
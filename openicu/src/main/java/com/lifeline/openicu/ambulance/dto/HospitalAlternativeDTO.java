@@ -0,0 +1,63 @@
+package com.lifeline.openicu.ambulance.dto;
+
+public class HospitalAlternativeDTO {
+
+    private Long hospitalId;
+    private String hospitalName;
+    private double distanceInKm;
+    private Double etaMinutes; // road travel time, null when ranked by distance only
+    private int availableBeds;
+
+    // Default constructor
+    public HospitalAlternativeDTO() {
+    }
+
+    // All-args constructor
+    public HospitalAlternativeDTO(Long hospitalId, String hospitalName, double distanceInKm, int availableBeds) {
+        this.hospitalId = hospitalId;
+        this.hospitalName = hospitalName;
+        this.distanceInKm = distanceInKm;
+        this.availableBeds = availableBeds;
+    }
+
+    // Getters and Setters
+    public Long getHospitalId() {
+        return hospitalId;
+    }
+
+    public void setHospitalId(Long hospitalId) {
+        this.hospitalId = hospitalId;
+    }
+
+    public String getHospitalName() {
+        return hospitalName;
+    }
+
+    public void setHospitalName(String hospitalName) {
+        this.hospitalName = hospitalName;
+    }
+
+    public double getDistanceInKm() {
+        return distanceInKm;
+    }
+
+    public void setDistanceInKm(double distanceInKm) {
+        this.distanceInKm = distanceInKm;
+    }
+
+    public Double getEtaMinutes() {
+        return etaMinutes;
+    }
+
+    public void setEtaMinutes(Double etaMinutes) {
+        this.etaMinutes = etaMinutes;
+    }
+
+    public int getAvailableBeds() {
+        return availableBeds;
+    }
+
+    public void setAvailableBeds(int availableBeds) {
+        this.availableBeds = availableBeds;
+    }
+}
@@ -1,12 +1,18 @@
 package com.lifeline.openicu.ambulance.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class HospitalMatchDTO {
 
+    private String ambulanceId;
     private Long hospitalId;
     private String hospitalName;
     private double distanceInKm;
+    private Double etaMinutes; // road travel time, null when ranked by distance only
     private int availableBeds;
     private Long bedId;
+    private List<HospitalAlternativeDTO> alternatives = new ArrayList<>(); // next-best hospitals, in the scorer's ranking
 
     // Default constructor
     public HospitalMatchDTO() {
@@ -22,6 +28,14 @@ public class HospitalMatchDTO {
     }
 
     // Getters and Setters
+    public String getAmbulanceId() {
+        return ambulanceId;
+    }
+
+    public void setAmbulanceId(String ambulanceId) {
+        this.ambulanceId = ambulanceId;
+    }
+
     public Long getHospitalId() {
         return hospitalId;
     }
@@ -46,6 +60,14 @@ public class HospitalMatchDTO {
         this.distanceInKm = distanceInKm;
     }
 
+    public Double getEtaMinutes() {
+        return etaMinutes;
+    }
+
+    public void setEtaMinutes(Double etaMinutes) {
+        this.etaMinutes = etaMinutes;
+    }
+
     public int getAvailableBeds() {
         return availableBeds;
     }
@@ -61,4 +83,12 @@ public class HospitalMatchDTO {
     public void setBedId(Long bedId) {
         this.bedId = bedId;
     }
+
+    public List<HospitalAlternativeDTO> getAlternatives() {
+        return alternatives;
+    }
+
+    public void setAlternatives(List<HospitalAlternativeDTO> alternatives) {
+        this.alternatives = alternatives;
+    }
 }
@@ -1,11 +1,15 @@
 package com.lifeline.openicu.ambulance.entity;
 
 import jakarta.persistence.*;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "bed_reservations")
+@Table(name = "bed_reservations", indexes = {
+        @Index(name = "idx_bed_reservations_bed_status", columnList = "bed_id, status"),
+        @Index(name = "idx_bed_reservations_ambulance_status", columnList = "ambulance_id, status")
+})
 public class BedReservation {
 
     @Id
@@ -35,13 +39,13 @@ public class BedReservation {
     public BedReservation() {
     }
 
-    // Constructor for creating new reservations
-    public BedReservation(Long hospitalId, Long bedId, String ambulanceId) {
+    // Constructor for creating new reservations held for the given time
+    public BedReservation(Long hospitalId, Long bedId, String ambulanceId, Duration ttl) {
         this.hospitalId = hospitalId;
         this.bedId = bedId;
         this.ambulanceId = ambulanceId;
         this.reservationTime = LocalDateTime.now();
-        this.expiryTime = this.reservationTime.plusMinutes(15); // Hard-coded 15 minutes
+        this.expiryTime = this.reservationTime.plus(ttl);
         this.status = ReservationStatus.RESERVED;
     }
 
@@ -14,17 +14,34 @@ import java.util.UUID;
 public interface BedReservationRepository extends JpaRepository<BedReservation, UUID> {
 
     /**
-     * Find active reservation by ambulance ID
+     * Find the latest reservation by ambulance ID and status; older duplicates from before
+     * dispatches were idempotent are ignored
      */
-    Optional<BedReservation> findByAmbulanceIdAndStatus(String ambulanceId, ReservationStatus status);
+    Optional<BedReservation> findFirstByAmbulanceIdAndStatusOrderByReservationTimeDesc(String ambulanceId,
+                                                                                       ReservationStatus status);
 
     /**
      * Find active reservation by bed ID
      */
     Optional<BedReservation> findByBedIdAndStatus(Long bedId, ReservationStatus status);
 
+    /**
+     * Check whether a bed is held by a reservation in the given status
+     */
+    boolean existsByBedIdAndStatus(Long bedId, ReservationStatus status);
+
+    /**
+     * Find all reservations in the given status
+     */
+    List<BedReservation> findByStatus(ReservationStatus status);
+
     /**
      * Find expired reservations (status = RESERVED and expiryTime < now)
      */
     List<BedReservation> findByStatusAndExpiryTimeBefore(ReservationStatus status, LocalDateTime time);
+
+    /**
+     * Find active reservations (status = RESERVED and expiryTime > now)
+     */
+    List<BedReservation> findByStatusAndExpiryTimeAfter(ReservationStatus status, LocalDateTime time);
 }
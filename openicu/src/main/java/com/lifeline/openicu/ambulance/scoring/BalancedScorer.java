@@ -0,0 +1,51 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Multi-objective scorer: expected minutes to reach the hospital plus configurable
+ * penalties, also in minutes, for a missing requested specialty, no emergency services
+ * and scarce beds (which are likely to be gone by the time the crew arrives).
+ */
+@Component
+public class BalancedScorer implements HospitalScorer {
+
+    public static final String NAME = "balanced";
+
+    private final RoutingProperties.Scoring weights;
+
+    public BalancedScorer(RoutingProperties routingProperties) {
+        this.weights = routingProperties.getScoring();
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public void score(CandidateFeatures features, double[] scores) {
+        double[] seconds = features.estimatedSeconds();
+        int[] beds = features.availableBeds();
+        boolean[] specialty = features.specialtyMatch();
+        boolean[] emergency = features.emergencyServices();
+        boolean specialtyRequested = features.isSpecialtyRequested();
+
+        double specialtyPenalty = weights.getSpecialtyMismatchMinutes();
+        double emergencyPenalty = weights.getNoEmergencyMinutes();
+        double scarcityPenalty = weights.getBedScarcityMinutes();
+
+        for (int i = 0; i < features.size(); i++) {
+            double score = seconds[i] / 60.0;
+            if (specialtyRequested && !specialty[i]) {
+                score += specialtyPenalty;
+            }
+            if (!emergency[i]) {
+                score += emergencyPenalty;
+            }
+            score += scarcityPenalty / Math.max(1, beds[i]);
+            scores[i] = score;
+        }
+    }
+}
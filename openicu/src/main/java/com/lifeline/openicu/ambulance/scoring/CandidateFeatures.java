@@ -0,0 +1,98 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+import java.util.Arrays;
+
+/**
+ * Features of routing candidates in struct-of-arrays form, so scorers can run tight
+ * loops over primitives. Instances are reused between requests on the same thread;
+ * only the first {@link #size()} entries of each array are valid.
+ */
+public final class CandidateFeatures {
+
+    private int size;
+    private double[] distanceKm = new double[0];
+    private double[] estimatedSeconds = new double[0];
+    private int[] availableBeds = new int[0];
+    private boolean[] located = new boolean[0];
+    private boolean[] specialtyMatch = new boolean[0];
+    private boolean[] emergencyServices = new boolean[0];
+    private boolean specialtyRequested;
+
+    /**
+     * Reset to the given number of candidates, growing the arrays only when needed.
+     */
+    void reset(int size, boolean specialtyRequested) {
+        if (distanceKm.length < size) {
+            int capacity = Math.max(size, distanceKm.length * 2);
+            distanceKm = Arrays.copyOf(distanceKm, capacity);
+            estimatedSeconds = Arrays.copyOf(estimatedSeconds, capacity);
+            availableBeds = Arrays.copyOf(availableBeds, capacity);
+            located = Arrays.copyOf(located, capacity);
+            specialtyMatch = Arrays.copyOf(specialtyMatch, capacity);
+            emergencyServices = Arrays.copyOf(emergencyServices, capacity);
+        }
+        this.size = size;
+        this.specialtyRequested = specialtyRequested;
+    }
+
+    void set(int i, double distance, double seconds, int beds, boolean isLocated, boolean specialty,
+            boolean emergency) {
+        distanceKm[i] = distance;
+        estimatedSeconds[i] = seconds;
+        availableBeds[i] = beds;
+        located[i] = isLocated;
+        specialtyMatch[i] = specialty;
+        emergencyServices[i] = emergency;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Great-circle distance from the ambulance.
+     */
+    public double[] distanceKm() {
+        return distanceKm;
+    }
+
+    /**
+     * Road travel time when known, otherwise distance at an average road speed;
+     * infinity when the hospital cannot be reached by road.
+     */
+    public double[] estimatedSeconds() {
+        return estimatedSeconds;
+    }
+
+    /**
+     * Free beds of the requested type.
+     */
+    public int[] availableBeds() {
+        return availableBeds;
+    }
+
+    /**
+     * Whether the hospital has coordinates; distance and time are meaningless otherwise.
+     */
+    public boolean[] located() {
+        return located;
+    }
+
+    /**
+     * Whether the hospital lists the requested specialty. All false when none was requested.
+     */
+    public boolean[] specialtyMatch() {
+        return specialtyMatch;
+    }
+
+    /**
+     * Whether the hospital offers emergency services.
+     */
+    public boolean[] emergencyServices() {
+        return emergencyServices;
+    }
+
+    public boolean isSpecialtyRequested() {
+        return specialtyRequested;
+    }
+}
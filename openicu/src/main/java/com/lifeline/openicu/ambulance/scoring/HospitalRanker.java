@@ -0,0 +1,196 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import com.lifeline.openicu.ambulance.service.RoutingCandidate;
+import com.lifeline.openicu.index.HospitalProfileIndex;
+import com.lifeline.openicu.index.HospitalTagIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Ranks routing candidates with a {@link HospitalScorer}.
+ * Candidate features are gathered into reusable primitive arrays and scored in one pass;
+ * only the best candidates are kept, in a bounded heap of candidate indexes, so ranking
+ * allocates nothing per candidate beyond the result and never sorts the whole window.
+ */
+@Component
+public class HospitalRanker {
+
+    private final Map<String, HospitalScorer> scorers = new TreeMap<>();
+    private final HospitalScorer defaultScorer;
+    private final HospitalProfileIndex hospitalProfileIndex;
+
+    private final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    public HospitalRanker(List<HospitalScorer> scorers, RoutingProperties routingProperties,
+            HospitalProfileIndex hospitalProfileIndex) {
+        for (HospitalScorer scorer : scorers) {
+            this.scorers.put(scorer.name().toLowerCase(Locale.ROOT), scorer);
+        }
+        this.hospitalProfileIndex = hospitalProfileIndex;
+        this.defaultScorer = scorer(routingProperties.getScoring().getDefaultScorer());
+    }
+
+    /**
+     * Resolve a scorer by name.
+     *
+     * @param name the scorer name, or null/blank for the configured default
+     * @throws IllegalArgumentException if no scorer has that name
+     */
+    public HospitalScorer scorer(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultScorer;
+        }
+        HospitalScorer scorer = scorers.get(name.trim().toLowerCase(Locale.ROOT));
+        if (scorer == null) {
+            throw new IllegalArgumentException(
+                    "Invalid scoring: " + name + ". Allowed values: " + String.join(", ", scorers.keySet()));
+        }
+        return scorer;
+    }
+
+    /**
+     * Score candidates and return the best of them in order. Located hospitals come first
+     * by ascending score; hospitals without coordinates follow in their original order.
+     * Ties keep their original order.
+     *
+     * @param candidates candidates in distance order
+     * @param scorer the scorer to apply
+     * @param requiredSpecialty specialty the patient needs, or null
+     * @param limit the most candidates to return
+     * @return the top candidates, each carrying its score, in ranked order
+     */
+    public List<RoutingCandidate> rank(List<RoutingCandidate> candidates, HospitalScorer scorer,
+            String requiredSpecialty, int limit) {
+        int size = candidates.size();
+        if (size == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        String specialty = requiredSpecialty == null || requiredSpecialty.isBlank()
+                ? null : HospitalTagIndex.tag(requiredSpecialty);
+        Workspace workspace = workspaces.get();
+        workspace.ensureCapacity(size);
+        CandidateFeatures features = workspace.features;
+        features.reset(size, specialty != null);
+        for (int i = 0; i < size; i++) {
+            RoutingCandidate candidate = candidates.get(i);
+            Long hospitalId = candidate.hospitalId();
+            features.set(i,
+                    candidate.distanceKm(),
+                    candidate.estimatedSeconds(),
+                    candidate.availableBeds(),
+                    candidate.hasCoordinates(),
+                    specialty != null && hospitalProfileIndex.hasSpecialty(hospitalId, specialty),
+                    hospitalProfileIndex.hasEmergencyServices(hospitalId));
+        }
+
+        double[] scores = workspace.scores;
+        scorer.score(features, scores);
+
+        int top = Math.min(limit, size);
+        int[] order = workspace.order;
+        selectTop(order, top, size, scores, features.located());
+
+        List<RoutingCandidate> ranked = new ArrayList<>(top);
+        for (int i = 0; i < top; i++) {
+            int index = order[i];
+            ranked.add(candidates.get(index).withScore(scores[index]));
+        }
+        return ranked;
+    }
+
+    /**
+     * Leave the best {@code top} of {@code size} candidate indexes in order[0..top), best
+     * first: located before unlocated, then by score, then by index. The worst kept index
+     * sits at the root of a max-heap, so each further candidate costs one comparison unless
+     * it displaces it.
+     */
+    private static void selectTop(int[] order, int top, int size, double[] scores, boolean[] located) {
+        for (int i = 0; i < top; i++) {
+            order[i] = i;
+            siftUp(order, i, scores, located);
+        }
+        for (int i = top; i < size; i++) {
+            if (after(order[0], i, scores, located)) {
+                order[0] = i;
+                siftDown(order, 0, top, scores, located);
+            }
+        }
+        for (int end = top - 1; end > 0; end--) {
+            int worst = order[0];
+            order[0] = order[end];
+            order[end] = worst;
+            siftDown(order, 0, end, scores, located);
+        }
+    }
+
+    private static void siftUp(int[] order, int i, double[] scores, boolean[] located) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!after(order[i], order[parent], scores, located)) {
+                return;
+            }
+            int swap = order[i];
+            order[i] = order[parent];
+            order[parent] = swap;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] order, int i, int size, double[] scores, boolean[] located) {
+        while (true) {
+            int largest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && after(order[left], order[largest], scores, located)) {
+                largest = left;
+            }
+            if (right < size && after(order[right], order[largest], scores, located)) {
+                largest = right;
+            }
+            if (largest == i) {
+                return;
+            }
+            int swap = order[i];
+            order[i] = order[largest];
+            order[largest] = swap;
+            i = largest;
+        }
+    }
+
+    private static boolean after(int a, int b, double[] scores, boolean[] located) {
+        if (located[a] != located[b]) {
+            return !located[a];
+        }
+        if (located[a]) {
+            int byScore = Double.compare(scores[a], scores[b]);
+            if (byScore != 0) {
+                return byScore > 0;
+            }
+        }
+        return a > b;
+    }
+
+    /**
+     * Per-thread buffers reused across ranking calls.
+     */
+    private static final class Workspace {
+        private final CandidateFeatures features = new CandidateFeatures();
+        private double[] scores = new double[0];
+        private int[] order = new int[0];
+
+        private void ensureCapacity(int size) {
+            if (scores.length < size) {
+                int capacity = Math.max(size, scores.length * 2);
+                scores = new double[capacity];
+                order = new int[capacity];
+            }
+        }
+    }
+}
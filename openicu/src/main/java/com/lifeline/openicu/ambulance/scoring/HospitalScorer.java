@@ -0,0 +1,33 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+/**
+ * Pluggable scoring of routing candidates. Implementations are Spring beans and are
+ * picked per request by {@link #name()}; lower scores rank first.
+ * Hospitals without coordinates always rank behind located ones, so scorers only need
+ * to produce meaningful scores for located candidates.
+ */
+public interface HospitalScorer {
+
+    /**
+     * Name clients use to select this scorer.
+     */
+    String name();
+
+    /**
+     * Whether the ranking depends on distance or travel time alone. Scorers that weigh
+     * other features are given a wider window of candidates to choose from.
+     */
+    default boolean distanceOnly() {
+        return false;
+    }
+
+    /**
+     * Score every candidate. Must not allocate per candidate.
+     *
+     * @param features candidate features, valid up to features.size()
+     * @param scores output, one score per candidate, in minutes-equivalent so that batch
+     *               dispatch can compare scores from different scorers; non-negative,
+     *               infinity for hospitals that must never be chosen
+     */
+    void score(CandidateFeatures features, double[] scores);
+}
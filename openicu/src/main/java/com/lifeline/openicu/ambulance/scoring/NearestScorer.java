@@ -0,0 +1,31 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Default scorer: quickest to reach, by road travel time when available and by
+ * great-circle distance otherwise.
+ */
+@Component
+public class NearestScorer implements HospitalScorer {
+
+    public static final String NAME = "nearest";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public boolean distanceOnly() {
+        return true;
+    }
+
+    @Override
+    public void score(CandidateFeatures features, double[] scores) {
+        double[] seconds = features.estimatedSeconds();
+        for (int i = 0; i < features.size(); i++) {
+            scores[i] = seconds[i] / 60.0;
+        }
+    }
+}
@@ -1,170 +1,459 @@
 package com.lifeline.openicu.ambulance.service;
 
+import com.lifeline.openicu.ambulance.config.ReservationProperties;
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
 import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.HospitalAlternativeDTO;
 import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
 import com.lifeline.openicu.ambulance.entity.BedReservation;
-import com.lifeline.openicu.ambulance.entity.ReservationStatus;
 import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
-import com.lifeline.openicu.bed.entity.Bed;
-import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.ambulance.scoring.HospitalRanker;
+import com.lifeline.openicu.ambulance.scoring.HospitalScorer;
+import com.lifeline.openicu.ambulance.traveltime.TravelTimeEngine;
 import com.lifeline.openicu.bed.entity.BedType;
-import com.lifeline.openicu.bed.repository.BedRepository;
-import com.lifeline.openicu.entity.Hospital;
-import com.lifeline.openicu.repository.HospitalRepository;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class AmbulanceRoutingService {
 
-    private final HospitalRepository hospitalRepository;
-    private final BedRepository bedRepository;
+    // Hospitals tried per round, and rounds before giving up under heavy contention
+    private static final int CLAIM_CANDIDATES = 5;
+    private static final int MAX_CLAIM_ROUNDS = 3;
+
+    // Hospitals each ambulance may be assigned to in a batch; wider lets the assignment trade
+    // a slightly longer trip for one ambulance against a much longer one for another
+    private static final int BATCH_CANDIDATES = 12;
+
+    // With road travel times, this many times more hospitals are considered before re-ranking
+    private static final int TRAVEL_TIME_WINDOW_FACTOR = 2;
+
+    // Likewise for scorers that weigh more than distance
+    private static final int SCORING_WINDOW_FACTOR = 4;
+
     private final BedReservationRepository bedReservationRepository;
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+    private final RoutingStrategy routingStrategy;
+    private final TravelTimeEngine travelTimeEngine;
+    private final HospitalRanker hospitalRanker;
+    private final int alternatives;
+    private final BedClaimService bedClaimService;
+    private final ReservationExpiryScheduler reservationExpiryScheduler;
+    private final ReservationProperties reservationProperties;
+    private final DispatchCache dispatchCache;
 
-    public AmbulanceRoutingService(HospitalRepository hospitalRepository,
-            BedRepository bedRepository,
-            BedReservationRepository bedReservationRepository) {
-        this.hospitalRepository = hospitalRepository;
-        this.bedRepository = bedRepository;
+    public AmbulanceRoutingService(BedReservationRepository bedReservationRepository,
+            BedAvailabilityIndex bedAvailabilityIndex,
+            List<RoutingStrategy> routingStrategies,
+            RoutingProperties routingProperties,
+            TravelTimeEngine travelTimeEngine,
+            HospitalRanker hospitalRanker,
+            BedClaimService bedClaimService,
+            ReservationExpiryScheduler reservationExpiryScheduler,
+            ReservationProperties reservationProperties,
+            DispatchCache dispatchCache) {
         this.bedReservationRepository = bedReservationRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.routingStrategy = routingStrategies.stream()
+                .filter(strategy -> strategy.type() == routingProperties.getStrategy())
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "No routing strategy for " + routingProperties.getStrategy()));
+        this.alternatives = routingProperties.getAlternatives();
+        this.travelTimeEngine = travelTimeEngine;
+        this.hospitalRanker = hospitalRanker;
+        this.bedClaimService = bedClaimService;
+        this.reservationExpiryScheduler = reservationExpiryScheduler;
+        this.reservationProperties = reservationProperties;
+        this.dispatchCache = dispatchCache;
     }
 
     /**
      * Find the nearest hospital with an available bed matching the required type.
-     * Creates a 15-minute reservation for the bed.
+     * With a road graph configured, nearest means quickest to reach by road.
+     * Creates a reservation for the bed, held for the TTL configured for its bed type.
+     * An ambulance that already holds an active reservation gets that match back, so client
+     * retries never reserve a second bed.
      */
     @Transactional
     public HospitalMatchDTO findNearestHospital(AmbulanceRequestDTO request) {
-        // Lazy expiry: expire stale reservations on every public call
-        expireStaleReservations();
+        BedType requestedBedType = parseBedType(request.getRequiredBedType());
 
-        // Parse the requested bed type
-        BedType requestedBedType;
-        try {
-            requestedBedType = BedType.valueOf(request.getRequiredBedType().toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new IllegalArgumentException(
-                    "Invalid bed type: " + request.getRequiredBedType() + ". Allowed values: ICU, VENTILATOR");
+        return dispatchCache.withAmbulanceLock(request.getAmbulanceId(), () -> {
+            Optional<HospitalMatchDTO> existing = dispatchCache.find(request, requestedBedType);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+
+            HospitalMatchDTO match = claimNearest(request, requestedBedType);
+            if (match == null) {
+                throw new IllegalStateException("No hospital with available " + requestedBedType + " beds found");
+            }
+            return match;
+        });
+    }
+
+    /**
+     * Assign beds to a batch of ambulances in one pass, e.g. during a mass-casualty incident.
+     * Ambulances are placed by a global assignment that minimises the total score (travel
+     * distance or time, plus any penalties from the request's scorer) subject to the free
+     * beds at each hospital, instead of each one greedily taking its nearest bed.
+     * Ambulances that cannot be placed get a match with no hospital or bed. Ambulances that
+     * already hold an active reservation, or appear twice in the batch, get their existing match.
+     * The whole batch runs under the locks of all its ambulances, so a concurrent single
+     * dispatch or batch for one of them waits and then finds the reservation made here.
+     *
+     * @param requests the ambulance requests
+     * @return one match per request, in request order
+     */
+    @Transactional
+    public List<HospitalMatchDTO> findNearestHospitals(List<AmbulanceRequestDTO> requests) {
+        // Validate every bed type and scorer before reserving anything
+        BedType[] bedTypes = new BedType[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            bedTypes[i] = parseBedType(requests.get(i).getRequiredBedType());
+            hospitalRanker.scorer(requests.get(i).getScoring());
         }
 
-        // Get all hospitals
-        List<Hospital> hospitals = hospitalRepository.findAll();
+        List<String> ambulanceIds = new ArrayList<>(requests.size());
+        for (AmbulanceRequestDTO request : requests) {
+            ambulanceIds.add(request.getAmbulanceId());
+        }
+        return dispatchCache.withAmbulanceLocks(ambulanceIds, () -> dispatchBatch(requests, bedTypes));
+    }
 
-        // Build a list of candidates: hospitals with available beds
-        List<HospitalCandidate> candidates = new ArrayList<>();
+    private List<HospitalMatchDTO> dispatchBatch(List<AmbulanceRequestDTO> requests, BedType[] bedTypes) {
+        HospitalMatchDTO[] results = new HospitalMatchDTO[requests.size()];
+        Map<BedType, List<Integer>> requestsByType = new EnumMap<>(BedType.class);
+        Map<String, Integer> firstRequest = new HashMap<>();
+        int[] duplicateOf = new int[requests.size()];
+        Arrays.fill(duplicateOf, -1);
+        for (int i = 0; i < requests.size(); i++) {
+            AmbulanceRequestDTO request = requests.get(i);
+            Integer first = firstRequest.putIfAbsent(request.getAmbulanceId(), i);
+            if (first != null) {
+                duplicateOf[i] = first;
+                continue;
+            }
+            Optional<HospitalMatchDTO> existing = dispatchCache.find(request, bedTypes[i]);
+            if (existing.isPresent()) {
+                results[i] = existing.get();
+            } else {
+                requestsByType.computeIfAbsent(bedTypes[i], type -> new ArrayList<>()).add(i);
+            }
+        }
+
+        for (Map.Entry<BedType, List<Integer>> entry : requestsByType.entrySet()) {
+            assignBatch(requests, entry.getValue(), entry.getKey(), results);
+        }
 
-        for (Hospital hospital : hospitals) {
-            // Find available beds of the requested type at this hospital
-            List<Bed> availableBeds = bedRepository.findByHospitalIdAndBedTypeAndBedStatus(
-                    hospital.getId(), requestedBedType, BedStatus.AVAILABLE);
+        for (int i = 0; i < results.length; i++) {
+            if (duplicateOf[i] >= 0) {
+                results[i] = results[duplicateOf[i]];
+            }
+            if (results[i] == null) {
+                HospitalMatchDTO unmatched = new HospitalMatchDTO();
+                unmatched.setAmbulanceId(requests.get(i).getAmbulanceId());
+                results[i] = unmatched;
+            }
+        }
+        return Arrays.asList(results);
+    }
 
-            // Filter out beds that already have an active reservation
-            List<Bed> trulyAvailableBeds = new ArrayList<>();
-            for (Bed bed : availableBeds) {
-                Optional<BedReservation> activeReservation = bedReservationRepository
-                        .findByBedIdAndStatus(bed.getId(), ReservationStatus.RESERVED);
-                if (activeReservation.isEmpty()) {
-                    trulyAvailableBeds.add(bed);
+    private void assignBatch(List<AmbulanceRequestDTO> requests, List<Integer> batch, BedType bedType,
+            HospitalMatchDTO[] results) {
+        // Candidate hospitals per ambulance, with each distinct hospital mapped to a capacity slot
+        List<List<RoutingCandidate>> candidates = new ArrayList<>(batch.size());
+        Map<Long, Integer> slotByHospital = new HashMap<>();
+        List<RoutingCandidate> slotHospitals = new ArrayList<>();
+        for (Integer requestIndex : batch) {
+            AmbulanceRequestDTO request = requests.get(requestIndex);
+            List<RoutingCandidate> nearest = findCandidates(request, bedType, BATCH_CANDIDATES);
+            candidates.add(nearest);
+            for (RoutingCandidate candidate : nearest) {
+                if (!slotByHospital.containsKey(candidate.hospitalId())) {
+                    slotByHospital.put(candidate.hospitalId(), slotHospitals.size());
+                    slotHospitals.add(candidate);
                 }
             }
+        }
 
-            // Skip hospital if no truly available beds
-            if (trulyAvailableBeds.isEmpty()) {
-                continue;
+        int[] slotCapacity = new int[slotHospitals.size()];
+        for (int s = 0; s < slotCapacity.length; s++) {
+            slotCapacity[s] = bedAvailabilityIndex.freeBedCount(slotHospitals.get(s).hospitalId(), bedType);
+        }
+        // Arc cost is the candidate's score; hospitals without coordinates or unreachable by road
+        // get no arc and are only used by the single-ambulance fallback
+        List<List<RoutingCandidate>> arcCandidates = new ArrayList<>(batch.size());
+        int[][] arcTargets = new int[batch.size()][];
+        double[][] arcCosts = new double[batch.size()][];
+        for (int a = 0; a < batch.size(); a++) {
+            List<RoutingCandidate> reachable = new ArrayList<>();
+            for (RoutingCandidate candidate : candidates.get(a)) {
+                if (candidate.hasCoordinates() && !Double.isInfinite(candidate.score())) {
+                    reachable.add(candidate);
+                }
+            }
+            arcCandidates.add(reachable);
+            arcTargets[a] = new int[reachable.size()];
+            arcCosts[a] = new double[reachable.size()];
+            for (int i = 0; i < reachable.size(); i++) {
+                arcTargets[a][i] = slotByHospital.get(reachable.get(i).hospitalId());
+                arcCosts[a][i] = reachable.get(i).score();
             }
+        }
 
-            // Calculate distance - use fallback for hospitals without coordinates
-            double distance;
-            if (hospital.getLatitude() != null && hospital.getLongitude() != null) {
-                // Normal distance calculation using Haversine formula
-                distance = calculateDistance(
-                        request.getLatitude(), request.getLongitude(),
-                        hospital.getLatitude(), hospital.getLongitude());
+        int[] assignment = CapacitatedAssignment.solve(arcTargets, arcCosts, slotCapacity);
+
+        // Group ambulances by assigned hospital so each hospital's beds are claimed together
+        List<List<Integer>> agentsBySlot = new ArrayList<>(slotHospitals.size());
+        for (int s = 0; s < slotHospitals.size(); s++) {
+            agentsBySlot.add(new ArrayList<>());
+        }
+        List<Integer> unplaced = new ArrayList<>();
+        for (int a = 0; a < batch.size(); a++) {
+            if (assignment[a] >= 0) {
+                agentsBySlot.get(assignment[a]).add(a);
             } else {
-                // Fallback: assign high distance for hospitals without coordinates
-                // This ensures they're considered but ranked lower than hospitals with coordinates
-                distance = 9999.0; // High distance to prioritize hospitals with coordinates
+                unplaced.add(batch.get(a));
             }
-
-            candidates.add(new HospitalCandidate(hospital, trulyAvailableBeds, distance));
         }
 
-        // Sort by distance ASC
-        candidates.sort(Comparator.comparingDouble(HospitalCandidate::distance));
+        List<BedReservation> reservations = new ArrayList<>();
+        List<HospitalMatchDTO> reservationMatches = new ArrayList<>();
+        for (int s = 0; s < slotHospitals.size(); s++) {
+            List<Integer> agents = agentsBySlot.get(s);
+            if (agents.isEmpty()) {
+                continue;
+            }
+            RoutingCandidate hospital = slotHospitals.get(s);
+            List<Long> freeBedIds = bedAvailabilityIndex.freeBedIds(hospital.hospitalId(), bedType);
+            List<Long> claimed = bedClaimService.tryClaimAll(
+                    freeBedIds.subList(0, Math.min(agents.size(), freeBedIds.size())));
+
+            for (int i = 0; i < agents.size(); i++) {
+                int a = agents.get(i);
+                AmbulanceRequestDTO request = requests.get(batch.get(a));
+                if (i >= claimed.size()) {
+                    // Lost a race for this hospital's beds; retried with a nearest search below
+                    unplaced.add(batch.get(a));
+                    continue;
+                }
+                Long bedId = claimed.get(i);
+                RoutingCandidate assigned = arcCandidates.get(a).get(indexOf(arcTargets[a], s));
+                reservations.add(new BedReservation(
+                        hospital.hospitalId(),
+                        bedId,
+                        request.getAmbulanceId(),
+                        reservationProperties.ttlFor(bedType)));
 
-        // Pick the nearest hospital
-        if (candidates.isEmpty()) {
-            throw new IllegalStateException("No hospital with available " + requestedBedType + " beds found");
+                HospitalMatchDTO match = new HospitalMatchDTO(
+                        hospital.hospitalId(),
+                        hospital.hospitalName(),
+                        assigned.distanceKm(),
+                        freeBedIds.size(),
+                        bedId);
+                match.setEtaMinutes(assigned.etaMinutes());
+                match.setAmbulanceId(request.getAmbulanceId());
+                match.setAlternatives(alternativesTo(hospital.hospitalId(), candidates.get(a)));
+                results[batch.get(a)] = match;
+                reservationMatches.add(match);
+            }
+        }
+        bedReservationRepository.saveAll(reservations);
+        for (int i = 0; i < reservations.size(); i++) {
+            reservationExpiryScheduler.schedule(reservations.get(i));
+            dispatchCache.put(reservations.get(i), bedType, reservationMatches.get(i));
         }
 
-        HospitalCandidate nearest = candidates.get(0);
-        Bed bedToReserve = nearest.availableBeds().get(0);
+        for (Integer requestIndex : unplaced) {
+            results[requestIndex] = claimNearest(requests.get(requestIndex), bedType);
+        }
+    }
 
-        // Create and save the reservation
-        BedReservation reservation = new BedReservation(
-                nearest.hospital().getId(),
-                bedToReserve.getId(),
-                request.getAmbulanceId());
-        bedReservationRepository.save(reservation);
+    /**
+     * Claim the nearest free bed for a single ambulance.
+     *
+     * @return the match, or null if no bed of the type could be claimed
+     */
+    private HospitalMatchDTO claimNearest(AmbulanceRequestDTO request, BedType bedType) {
+        // Walk the ranked candidates; a lost claim race just moves on to the next bed
+        for (int round = 0; round < MAX_CLAIM_ROUNDS && bedAvailabilityIndex.freeBedCount(bedType) > 0; round++) {
+            List<RoutingCandidate> candidates = findCandidates(request, bedType, CLAIM_CANDIDATES);
+            if (candidates.isEmpty()) {
+                break;
+            }
 
-        // Return the result
-        return new HospitalMatchDTO(
-                nearest.hospital().getId(),
-                nearest.hospital().getName(),
-                nearest.distance(),
-                nearest.availableBeds().size(),
-                bedToReserve.getId());
+            for (RoutingCandidate candidate : candidates) {
+                HospitalMatchDTO match = claimAt(request, bedType, candidate);
+                if (match != null) {
+                    // The rest of this ranking doubles as the crew's fallback list
+                    match.setAlternatives(alternativesTo(candidate.hospitalId(), candidates));
+                    return match;
+                }
+            }
+        }
+        return null;
     }
 
     /**
-     * Lazy expiry: Find all RESERVED reservations that have expired and mark them
-     * as EXPIRED.
-     * Called at the start of every public service method.
+     * Claim a free bed at one hospital and reserve it for the ambulance.
+     *
+     * @return the match, or null if every free bed there was taken first
      */
-    private void expireStaleReservations() {
-        LocalDateTime now = LocalDateTime.now();
-        List<BedReservation> expiredReservations = bedReservationRepository
-                .findByStatusAndExpiryTimeBefore(ReservationStatus.RESERVED, now);
+    private HospitalMatchDTO claimAt(AmbulanceRequestDTO request, BedType bedType, RoutingCandidate hospital) {
+        List<Long> freeBedIds = bedAvailabilityIndex.freeBedIds(hospital.hospitalId(), bedType);
 
-        for (BedReservation reservation : expiredReservations) {
-            reservation.setStatus(ReservationStatus.EXPIRED);
+        // A bed suggested by the routing strategy is tried before the rest of the hospital's free beds
+        List<Long> bedIds = freeBedIds;
+        if (hospital.candidateBedId() != null) {
+            bedIds = new ArrayList<>(freeBedIds.size() + 1);
+            bedIds.add(hospital.candidateBedId());
+            bedIds.addAll(freeBedIds);
         }
 
-        if (!expiredReservations.isEmpty()) {
-            bedReservationRepository.saveAll(expiredReservations);
+        for (Long bedId : bedIds) {
+            if (!bedClaimService.tryClaim(bedId)) {
+                continue;
+            }
+
+            // Create and save the reservation
+            BedReservation reservation = new BedReservation(
+                    hospital.hospitalId(),
+                    bedId,
+                    request.getAmbulanceId(),
+                    reservationProperties.ttlFor(bedType));
+            bedReservationRepository.save(reservation);
+            reservationExpiryScheduler.schedule(reservation);
+
+            // Return the result
+            HospitalMatchDTO match = new HospitalMatchDTO(
+                    hospital.hospitalId(),
+                    hospital.hospitalName(),
+                    hospital.distanceKm(),
+                    freeBedIds.size(),
+                    bedId);
+            match.setEtaMinutes(hospital.etaMinutes());
+            match.setAmbulanceId(request.getAmbulanceId());
+            dispatchCache.put(reservation, bedType, match);
+            return match;
         }
+        return null;
     }
 
     /**
-     * Calculate distance between two coordinates using the Haversine formula.
-     * Returns distance in kilometers.
+     * Ranked candidates for one ambulance. The routing strategy supplies a window of hospitals
+     * by great-circle distance; road travel times are filled in when a road graph is loaded,
+     * and the request's scorer orders the result. The window is widened whenever the final
+     * order can differ from the distance order, since the nearest hospital as the crow flies
+     * is often neither the quickest to reach nor the best equipped.
      */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        final double EARTH_RADIUS_KM = 6371.0;
+    private List<RoutingCandidate> findCandidates(AmbulanceRequestDTO request, BedType bedType, int limit) {
+        HospitalScorer scorer = hospitalRanker.scorer(request.getScoring());
+        boolean travelTimes = travelTimeEngine.isAvailable();
 
-        double lat1Rad = Math.toRadians(lat1);
-        double lat2Rad = Math.toRadians(lat2);
-        double deltaLatRad = Math.toRadians(lat2 - lat1);
-        double deltaLonRad = Math.toRadians(lon2 - lon1);
+        int window = Math.max(limit, alternatives + 1);
+        if (travelTimes) {
+            window *= TRAVEL_TIME_WINDOW_FACTOR;
+        }
+        if (!scorer.distanceOnly()) {
+            window *= SCORING_WINDOW_FACTOR;
+        }
 
-        double a = Math.sin(deltaLatRad / 2) * Math.sin(deltaLatRad / 2)
-                + Math.cos(lat1Rad) * Math.cos(lat2Rad)
-                        * Math.sin(deltaLonRad / 2) * Math.sin(deltaLonRad / 2);
+        List<RoutingCandidate> candidates = routingStrategy.findCandidates(
+                request.getLatitude(), request.getLongitude(), bedType, window);
+        if (travelTimes) {
+            candidates = withTravelTimes(request, candidates);
+        }
+        // The claim walks the first limit candidates; the next ones are the crew's alternatives
+        return hospitalRanker.rank(candidates, scorer, request.getRequiredSpecialty(), limit + alternatives);
+    }
 
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    /**
+     * Fill in road travel times for every located candidate. Candidates are returned
+     * unchanged when the ambulance is off the road network.
+     */
+    private List<RoutingCandidate> withTravelTimes(AmbulanceRequestDTO request, List<RoutingCandidate> candidates) {
+        List<RoutingCandidate> located = new ArrayList<>(candidates.size());
+        for (RoutingCandidate candidate : candidates) {
+            if (candidate.hasCoordinates()) {
+                located.add(candidate);
+            }
+        }
+        if (located.isEmpty()) {
+            return candidates;
+        }
+
+        double[][] destinations = new double[located.size()][];
+        for (int i = 0; i < located.size(); i++) {
+            destinations[i] = new double[] {located.get(i).latitude(), located.get(i).longitude()};
+        }
+        double[] seconds = travelTimeEngine.travelTimesSeconds(
+                request.getLatitude(), request.getLongitude(), destinations);
+        if (Double.isNaN(seconds[0])) {
+            return candidates;
+        }
 
-        return EARTH_RADIUS_KM * c;
+        Map<Long, Double> secondsByHospital = new HashMap<>();
+        for (int i = 0; i < located.size(); i++) {
+            secondsByHospital.put(located.get(i).hospitalId(), seconds[i]);
+        }
+        List<RoutingCandidate> result = new ArrayList<>(candidates.size());
+        for (RoutingCandidate candidate : candidates) {
+            Double travelTime = secondsByHospital.get(candidate.hospitalId());
+            result.add(travelTime != null ? candidate.withTravelTime(travelTime) : candidate);
+        }
+        return result;
     }
 
     /**
-     * Internal record to hold hospital candidate data during sorting.
+     * The best-ranked candidates other than the matched hospital, in the order of the request's
+     * scorer (nearest first only for distance scoring). Candidates already come ranked and bounded
+     * from findCandidates, so no further sort is needed.
      */
-    private record HospitalCandidate(Hospital hospital, List<Bed> availableBeds, double distance) {
+    private List<HospitalAlternativeDTO> alternativesTo(Long matchedHospitalId, List<RoutingCandidate> candidates) {
+        List<HospitalAlternativeDTO> result = new ArrayList<>(alternatives);
+        for (RoutingCandidate candidate : candidates) {
+            if (result.size() == alternatives) {
+                break;
+            }
+            if (!candidate.hospitalId().equals(matchedHospitalId)) {
+                HospitalAlternativeDTO alternative = new HospitalAlternativeDTO(
+                        candidate.hospitalId(),
+                        candidate.hospitalName(),
+                        candidate.distanceKm(),
+                        candidate.availableBeds());
+                alternative.setEtaMinutes(candidate.etaMinutes());
+                result.add(alternative);
+            }
+        }
+        return result;
+    }
+
+    private static BedType parseBedType(String requiredBedType) {
+        try {
+            return BedType.valueOf(requiredBedType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    "Invalid bed type: " + requiredBedType + ". Allowed values: ICU, VENTILATOR");
+        }
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
     }
 }
@@ -0,0 +1,158 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Atomic bed claim primitive for concurrent ambulance dispatch.
+ * A claim must first win the compare-and-set on the bed's in-memory slot, then
+ * confirm it with a version-checked conditional UPDATE on the bed row, which
+ * also catches claims made by other application instances. Losers get false
+ * immediately and are expected to try the next candidate bed.
+ */
+@Service
+public class BedClaimService {
+
+    // Same conditional claim as BedRepository.claimIfVersion, sent as one JDBC batch for bulk claims
+    private static final String CLAIM_SQL =
+            "UPDATE beds SET version = version + 1 WHERE id = ? AND version = ? AND bed_status = ?";
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+    private final BedRepository bedRepository;
+    private final BedReservationRepository bedReservationRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public BedClaimService(BedAvailabilityIndex bedAvailabilityIndex,
+            BedRepository bedRepository,
+            BedReservationRepository bedReservationRepository,
+            JdbcTemplate jdbcTemplate) {
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.bedRepository = bedRepository;
+        this.bedReservationRepository = bedReservationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Try to claim a bed for the current transaction.
+     * If the surrounding transaction rolls back, the claim is released again.
+     *
+     * @param bedId the bed to claim
+     * @return true if the caller now holds the bed
+     */
+    @Transactional
+    public boolean tryClaim(Long bedId) {
+        if (!bedAvailabilityIndex.tryClaim(bedId)) {
+            return false;
+        }
+
+        Long version = bedAvailabilityIndex.version(bedId);
+        int updated = version == null ? 0 : bedRepository.claimIfVersion(bedId, version, BedStatus.AVAILABLE);
+        if (updated == 1) {
+            bedAvailabilityIndex.updateVersion(bedId, version + 1);
+            releaseOnRollback(bedId, version);
+            return true;
+        }
+
+        // Lost to a writer the index has not seen yet: resync this bed and move on
+        resync(bedId);
+        return false;
+    }
+
+    /**
+     * Try to claim several beds at once, e.g. for a batch dispatch.
+     * Works like {@link #tryClaim(Long)} for each bed, but confirms every index win
+     * with a single batched round trip to the database.
+     *
+     * @param bedIds the beds to claim
+     * @return the beds the caller now holds, in the given order
+     */
+    @Transactional
+    public List<Long> tryClaimAll(List<Long> bedIds) {
+        List<Long> candidates = new ArrayList<>(bedIds.size());
+        List<Long> versions = new ArrayList<>(bedIds.size());
+        for (Long bedId : bedIds) {
+            if (!bedAvailabilityIndex.tryClaim(bedId)) {
+                continue;
+            }
+            Long version = bedAvailabilityIndex.version(bedId);
+            if (version == null) {
+                resync(bedId);
+                continue;
+            }
+            candidates.add(bedId);
+            versions.add(version);
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(CLAIM_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, candidates.get(i));
+                statement.setLong(2, versions.get(i));
+                statement.setString(3, BedStatus.AVAILABLE.name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return candidates.size();
+            }
+        });
+
+        List<Long> claimed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Long bedId = candidates.get(i);
+            if (updated[i] == 1) {
+                bedAvailabilityIndex.updateVersion(bedId, versions.get(i) + 1);
+                releaseOnRollback(bedId, versions.get(i));
+                claimed.add(bedId);
+            } else {
+                resync(bedId);
+            }
+        }
+        return claimed;
+    }
+
+    private void releaseOnRollback(Long bedId, Long previousVersion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    bedAvailabilityIndex.updateVersion(bedId, previousVersion);
+                    bedAvailabilityIndex.release(bedId);
+                }
+            }
+        });
+    }
+
+    private void resync(Long bedId) {
+        Optional<Bed> bed = bedRepository.findById(bedId);
+        if (bed.isEmpty()) {
+            return;
+        }
+        bedAvailabilityIndex.onBedSaved(bed.get());
+        if (!bedReservationRepository.existsByBedIdAndStatus(bedId, ReservationStatus.RESERVED)) {
+            bedAvailabilityIndex.release(bedId);
+        }
+    }
+}
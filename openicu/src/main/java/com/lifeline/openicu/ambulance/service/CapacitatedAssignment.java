@@ -0,0 +1,155 @@
+package com.lifeline.openicu.ambulance.service;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Minimum-cost assignment of ambulances to hospitals with per-hospital capacity.
+ * Modelled as a min-cost flow (source -> ambulance -> hospital -> sink) and solved by
+ * successive shortest paths with Dijkstra and node potentials. Every augmentation
+ * assigns one more ambulance, so the result places as many ambulances as capacity
+ * allows and, among those placements, minimises the total distance.
+ */
+final class CapacitatedAssignment {
+
+    private static final double EPSILON = 1e-9;
+
+    private final int agents;
+    private final int source;
+    private final int sink;
+
+    // Edge list in arrays; edge i and i ^ 1 form a forward/residual pair
+    private int[] head;
+    private int[] next;
+    private int[] to;
+    private int[] capacity;
+    private double[] cost;
+    private int edgeCount;
+
+    private CapacitatedAssignment(int agents, int slots, int arcs) {
+        this.agents = agents;
+        this.source = agents + slots;
+        this.sink = source + 1;
+        int maxEdges = 2 * (agents + slots + arcs);
+        head = new int[sink + 1];
+        Arrays.fill(head, -1);
+        next = new int[maxEdges];
+        to = new int[maxEdges];
+        capacity = new int[maxEdges];
+        cost = new double[maxEdges];
+    }
+
+    /**
+     * Solve the assignment.
+     *
+     * @param arcTargets for each ambulance, the hospital slots it may be sent to
+     * @param arcCosts for each ambulance, the cost of each of those arcs (same order)
+     * @param slotCapacity number of ambulances each hospital slot can take
+     * @return for each ambulance, the assigned slot, or -1 if it could not be placed
+     */
+    static int[] solve(int[][] arcTargets, double[][] arcCosts, int[] slotCapacity) {
+        int agents = arcTargets.length;
+        int slots = slotCapacity.length;
+        int arcs = 0;
+        for (int[] targets : arcTargets) {
+            arcs += targets.length;
+        }
+
+        CapacitatedAssignment flow = new CapacitatedAssignment(agents, slots, arcs);
+        for (int a = 0; a < agents; a++) {
+            flow.addEdge(flow.source, a, 1, 0.0);
+            for (int i = 0; i < arcTargets[a].length; i++) {
+                flow.addEdge(a, agents + arcTargets[a][i], 1, arcCosts[a][i]);
+            }
+        }
+        for (int s = 0; s < slots; s++) {
+            if (slotCapacity[s] > 0) {
+                flow.addEdge(agents + s, flow.sink, slotCapacity[s], 0.0);
+            }
+        }
+
+        flow.run();
+        return flow.assignments();
+    }
+
+    private void addEdge(int from, int target, int cap, double edgeCost) {
+        to[edgeCount] = target;
+        capacity[edgeCount] = cap;
+        cost[edgeCount] = edgeCost;
+        next[edgeCount] = head[from];
+        head[from] = edgeCount++;
+
+        to[edgeCount] = from;
+        capacity[edgeCount] = 0;
+        cost[edgeCount] = -edgeCost;
+        next[edgeCount] = head[target];
+        head[target] = edgeCount++;
+    }
+
+    private void run() {
+        int nodes = sink + 1;
+        // All initial costs are non-negative, so zero potentials are feasible
+        double[] potential = new double[nodes];
+        double[] distance = new double[nodes];
+        int[] parentEdge = new int[nodes];
+
+        while (true) {
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            Arrays.fill(parentEdge, -1);
+            distance[source] = 0.0;
+
+            PriorityQueue<double[]> queue = new PriorityQueue<>((x, y) -> Double.compare(x[0], y[0]));
+            queue.add(new double[] {0.0, source});
+            while (!queue.isEmpty()) {
+                double[] top = queue.poll();
+                int node = (int) top[1];
+                if (top[0] > distance[node] + EPSILON) {
+                    continue;
+                }
+                for (int e = head[node]; e != -1; e = next[e]) {
+                    if (capacity[e] <= 0) {
+                        continue;
+                    }
+                    int target = to[e];
+                    double reduced = distance[node] + cost[e] + potential[node] - potential[target];
+                    if (reduced < distance[target] - EPSILON) {
+                        distance[target] = reduced;
+                        parentEdge[target] = e;
+                        queue.add(new double[] {reduced, target});
+                    }
+                }
+            }
+
+            if (distance[sink] == Double.POSITIVE_INFINITY) {
+                return;
+            }
+            for (int n = 0; n < nodes; n++) {
+                if (distance[n] < Double.POSITIVE_INFINITY) {
+                    potential[n] += distance[n];
+                }
+            }
+
+            // Every source edge has capacity one, so each path carries exactly one ambulance
+            for (int node = sink; node != source; node = to[parentEdge[node] ^ 1]) {
+                int e = parentEdge[node];
+                capacity[e] -= 1;
+                capacity[e ^ 1] += 1;
+            }
+        }
+    }
+
+    private int[] assignments() {
+        int[] result = new int[agents];
+        Arrays.fill(result, -1);
+        for (int a = 0; a < agents; a++) {
+            for (int e = head[a]; e != -1; e = next[e]) {
+                // A saturated forward arc into a hospital slot is the chosen assignment
+                if ((e & 1) == 0 && to[e] < source && capacity[e] == 0) {
+                    result[a] = to[e] - agents;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
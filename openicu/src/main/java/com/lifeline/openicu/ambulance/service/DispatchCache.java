@@ -0,0 +1,226 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.index.HospitalPoint;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Active dispatch per ambulance, so that a retried find-nearest returns the bed the
+ * ambulance already holds instead of routing again and reserving a second bed.
+ * Entries are added when a reservation is created, read through from the database on a
+ * miss, and dropped when the reservation expires.
+ * A retry asking for a different bed type than the one held releases the held bed, so the
+ * ambulance is routed again for the bed it now needs.
+ */
+@Component
+public class DispatchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DispatchCache.class);
+
+    // Dispatches for the same ambulance are serialised on one of these stripes
+    private static final int LOCK_STRIPES = 1024;
+
+    private final BedReservationRepository bedReservationRepository;
+    private final BedRepository bedRepository;
+    private final HospitalSpatialIndex hospitalSpatialIndex;
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final Map<String, ActiveDispatch> dispatches = new ConcurrentHashMap<>();
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public DispatchCache(BedReservationRepository bedReservationRepository,
+            BedRepository bedRepository,
+            HospitalSpatialIndex hospitalSpatialIndex,
+            BedAvailabilityIndex bedAvailabilityIndex) {
+        this.bedReservationRepository = bedReservationRepository;
+        this.bedRepository = bedRepository;
+        this.hospitalSpatialIndex = hospitalSpatialIndex;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run a dispatch while holding the ambulance's lock, so concurrent retries from the same
+     * ambulance see each other's reservation instead of both routing.
+     */
+    public <T> T withAmbulanceLock(String ambulanceId, Supplier<T> dispatch) {
+        ReentrantLock lock = locks[stripe(ambulanceId)];
+        lock.lock();
+        try {
+            return dispatch.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a batch dispatch while holding the locks of all its ambulances. The stripes are
+     * taken in ascending order, so concurrent batches and single dispatches cannot deadlock.
+     */
+    public <T> T withAmbulanceLocks(Collection<String> ambulanceIds, Supplier<T> dispatch) {
+        int[] stripes = ambulanceIds.stream().mapToInt(DispatchCache::stripe).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            return dispatch.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * The ambulance's active dispatch, if it holds an unexpired reservation for a bed of the
+     * requested type. A reservation for another bed type is released.
+     *
+     * @param request the incoming request; its position is used when the match has to be
+     *                rebuilt from the database
+     * @param bedType the requested bed type
+     * @return the existing match, or empty if the ambulance should be routed
+     */
+    public Optional<HospitalMatchDTO> find(AmbulanceRequestDTO request, BedType bedType) {
+        String ambulanceId = request.getAmbulanceId();
+        ActiveDispatch cached = dispatches.get(ambulanceId);
+        if (cached != null) {
+            if (cached.expiryTime().isAfter(LocalDateTime.now())) {
+                if (cached.bedType() == bedType) {
+                    return Optional.of(cached.match());
+                }
+                bedReservationRepository.findById(cached.reservationId())
+                        .filter(reservation -> reservation.getStatus() == ReservationStatus.RESERVED)
+                        .ifPresent(this::release);
+                dispatches.remove(ambulanceId, cached);
+                return Optional.empty();
+            }
+            dispatches.remove(ambulanceId, cached);
+        }
+
+        // Read through: the reservation may predate a restart or come from another instance
+        Optional<BedReservation> reservation =
+                bedReservationRepository.findFirstByAmbulanceIdAndStatusOrderByReservationTimeDesc(
+                        ambulanceId, ReservationStatus.RESERVED);
+        if (reservation.isEmpty() || !reservation.get().getExpiryTime().isAfter(LocalDateTime.now())) {
+            return Optional.empty();
+        }
+
+        BedType heldBedType = bedRepository.findById(reservation.get().getBedId()).map(Bed::getBedType).orElse(null);
+        if (heldBedType != bedType) {
+            release(reservation.get());
+            return Optional.empty();
+        }
+
+        HospitalMatchDTO match = rebuildMatch(request, bedType, reservation.get());
+        dispatches.put(ambulanceId, new ActiveDispatch(reservation.get().getId(), bedType,
+                reservation.get().getExpiryTime(), match));
+        return Optional.of(match);
+    }
+
+    /**
+     * Record a new dispatch. It is visible at once, so a retry arriving before the
+     * transaction commits still finds it, and is dropped again if the transaction rolls back.
+     */
+    public void put(BedReservation reservation, BedType bedType, HospitalMatchDTO match) {
+        String ambulanceId = reservation.getAmbulanceId();
+        ActiveDispatch dispatch = new ActiveDispatch(reservation.getId(), bedType, reservation.getExpiryTime(), match);
+        dispatches.put(ambulanceId, dispatch);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        dispatches.remove(ambulanceId, dispatch);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop the ambulance's dispatch if it still refers to the given reservation.
+     */
+    public void evict(String ambulanceId, UUID reservationId) {
+        ActiveDispatch dispatch = dispatches.get(ambulanceId);
+        if (dispatch != null && dispatch.reservationId().equals(reservationId)) {
+            dispatches.remove(ambulanceId, dispatch);
+        }
+    }
+
+    public int size() {
+        return dispatches.size();
+    }
+
+    // Ends the hold as EXPIRED, as for a lapsed reservation; the bed returns to the free
+    // pool once that commits
+    private void release(BedReservation reservation) {
+        reservation.setStatus(ReservationStatus.EXPIRED);
+        bedReservationRepository.save(reservation);
+        logger.info("Released bed {} held by ambulance {} for a request of another bed type",
+                reservation.getBedId(), reservation.getAmbulanceId());
+
+        Long bedId = reservation.getBedId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bedAvailabilityIndex.release(bedId);
+                }
+            });
+        } else {
+            bedAvailabilityIndex.release(bedId);
+        }
+    }
+
+    private static int stripe(String ambulanceId) {
+        return Math.floorMod(ambulanceId.hashCode(), LOCK_STRIPES);
+    }
+
+    private HospitalMatchDTO rebuildMatch(AmbulanceRequestDTO request, BedType bedType, BedReservation reservation) {
+        HospitalPoint hospital = hospitalSpatialIndex.get(reservation.getHospitalId());
+        double distanceKm = hospital != null && hospital.hasCoordinates()
+                ? HospitalSpatialIndex.distanceKm(request.getLatitude(), request.getLongitude(),
+                        hospital.latitude(), hospital.longitude())
+                : IndexRoutingStrategy.UNLOCATED_DISTANCE_KM;
+
+        HospitalMatchDTO match = new HospitalMatchDTO(
+                reservation.getHospitalId(),
+                hospital != null ? hospital.name() : null,
+                distanceKm,
+                bedAvailabilityIndex.freeBedCount(reservation.getHospitalId(), bedType),
+                reservation.getBedId());
+        match.setAmbulanceId(reservation.getAmbulanceId());
+        return match;
+    }
+
+    private record ActiveDispatch(UUID reservationId, BedType bedType, LocalDateTime expiryTime,
+                                  HospitalMatchDTO match) {
+    }
+}
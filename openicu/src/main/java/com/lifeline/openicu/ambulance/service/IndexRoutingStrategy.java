@@ -0,0 +1,68 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.index.HospitalPoint;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Routing candidates from the in-memory indexes: expanding-ring search over the
+ * spatial index, filtered by the bed availability index. No database access.
+ */
+@Component
+public class IndexRoutingStrategy implements RoutingStrategy {
+
+    // Distance reported for hospitals without coordinates; ranking goes by hasCoordinates, not this value
+    static final double UNLOCATED_DISTANCE_KM = 9999.0;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+    private final HospitalSpatialIndex hospitalSpatialIndex;
+
+    public IndexRoutingStrategy(BedAvailabilityIndex bedAvailabilityIndex,
+            HospitalSpatialIndex hospitalSpatialIndex) {
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.hospitalSpatialIndex = hospitalSpatialIndex;
+    }
+
+    @Override
+    public RoutingProperties.Strategy type() {
+        return RoutingProperties.Strategy.INDEX;
+    }
+
+    @Override
+    public List<RoutingCandidate> findCandidates(double latitude, double longitude, BedType bedType, int limit) {
+        // Nothing free anywhere: skip the spatial search entirely
+        if (bedAvailabilityIndex.freeBedCount(bedType) == 0) {
+            return List.of();
+        }
+
+        // Only hospitals with a free bed of the requested type are considered
+        LongPredicate hasFreeBed = hospitalId -> bedAvailabilityIndex.freeBedCount(hospitalId, bedType) > 0;
+
+        List<RoutingCandidate> candidates = new ArrayList<>(limit);
+        for (HospitalSpatialIndex.Neighbour neighbour : hospitalSpatialIndex.nearest(latitude, longitude, limit, hasFreeBed)) {
+            candidates.add(toCandidate(neighbour.point(), neighbour.distanceKm(), bedType));
+        }
+
+        if (candidates.size() < limit) {
+            for (HospitalPoint point : hospitalSpatialIndex.unlocated(hasFreeBed)) {
+                candidates.add(toCandidate(point, UNLOCATED_DISTANCE_KM, bedType));
+                if (candidates.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private RoutingCandidate toCandidate(HospitalPoint point, double distanceKm, BedType bedType) {
+        return new RoutingCandidate(point.id(), point.name(), point.latitude(), point.longitude(), distanceKm,
+                bedAvailabilityIndex.freeBedCount(point.id(), bedType), null);
+    }
+}
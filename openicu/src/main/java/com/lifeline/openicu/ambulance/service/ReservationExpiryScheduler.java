@@ -0,0 +1,189 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.config.ReservationProperties;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dedicated expiry scheduler for bed reservations.
+ * Active reservations sit in a delay queue keyed on their expiry time; a single
+ * background thread wakes when the earliest one is due, expires every due
+ * reservation in one batch and hands the beds straight back to the availability
+ * index. Dispatch requests never pay for expiry work.
+ */
+@Component
+public class ReservationExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryScheduler.class);
+
+    // Back-off before retrying a batch that failed to persist
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+
+    private final BedReservationRepository bedReservationRepository;
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+    private final ReservationProperties reservationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final DispatchCache dispatchCache;
+
+    private final DelayQueue<ExpiryEntry> queue = new DelayQueue<>();
+    private Thread worker;
+
+    public ReservationExpiryScheduler(BedReservationRepository bedReservationRepository,
+            BedAvailabilityIndex bedAvailabilityIndex,
+            ReservationProperties reservationProperties,
+            TransactionTemplate transactionTemplate,
+            DispatchCache dispatchCache) {
+        this.bedReservationRepository = bedReservationRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.reservationProperties = reservationProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.dispatchCache = dispatchCache;
+    }
+
+    /**
+     * Load every active reservation from the database and start the expiry thread.
+     * Reservations that lapsed while the application was down expire on the first pass.
+     */
+    @PostConstruct
+    public void start() {
+        List<BedReservation> active = bedReservationRepository.findByStatus(ReservationStatus.RESERVED);
+        for (BedReservation reservation : active) {
+            queue.add(new ExpiryEntry(reservation.getId(), toEpochMillis(reservation.getExpiryTime())));
+        }
+        logger.info("Reservation expiry scheduler loaded {} active reservations", active.size());
+
+        worker = new Thread(this::run, "reservation-expiry");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Schedule a new reservation for expiry. When called inside a transaction the
+     * reservation is only scheduled once that transaction commits.
+     *
+     * @param reservation the saved reservation
+     */
+    public void schedule(BedReservation reservation) {
+        ExpiryEntry entry = new ExpiryEntry(reservation.getId(), toEpochMillis(reservation.getExpiryTime()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queue.add(entry);
+                }
+            });
+        } else {
+            queue.add(entry);
+        }
+    }
+
+    /**
+     * Number of reservations waiting to expire.
+     */
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<ExpiryEntry> batch = new ArrayList<>();
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, reservationProperties.getExpiryBatchSize() - 1);
+                expireBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.error("Failed to expire {} reservations, retrying", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                for (ExpiryEntry entry : batch) {
+                    queue.add(new ExpiryEntry(entry.reservationId(), retryAt));
+                }
+            }
+        }
+    }
+
+    private void expireBatch(List<ExpiryEntry> batch) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+        for (ExpiryEntry entry : batch) {
+            ids.add(entry.reservationId());
+        }
+
+        // Re-queued only once the batch has committed; on failure the whole batch is retried
+        List<ExpiryEntry> notDue = new ArrayList<>();
+        List<BedReservation> released = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<BedReservation> expired = new ArrayList<>();
+            for (BedReservation reservation : bedReservationRepository.findAllById(ids)) {
+                // Confirmed or already expired reservations simply drop out of the queue
+                if (reservation.getStatus() != ReservationStatus.RESERVED) {
+                    continue;
+                }
+                if (reservation.getExpiryTime().isAfter(now)) {
+                    notDue.add(new ExpiryEntry(reservation.getId(), toEpochMillis(reservation.getExpiryTime())));
+                    continue;
+                }
+                reservation.setStatus(ReservationStatus.EXPIRED);
+                expired.add(reservation);
+            }
+            bedReservationRepository.saveAll(expired);
+            return expired;
+        });
+        queue.addAll(notDue);
+
+        // Beds go back into availability as soon as the expiry is committed
+        for (BedReservation reservation : released) {
+            bedAvailabilityIndex.release(reservation.getBedId());
+            dispatchCache.evict(reservation.getAmbulanceId(), reservation.getId());
+        }
+        if (!released.isEmpty()) {
+            logger.info("Expired {} bed reservations", released.size());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Delay queue entry for a single reservation.
+     */
+    private record ExpiryEntry(UUID reservationId, long expiresAtMillis) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((ExpiryEntry) other).expiresAtMillis);
+        }
+    }
+}
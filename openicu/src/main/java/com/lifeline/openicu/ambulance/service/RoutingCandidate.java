@@ -0,0 +1,61 @@
+package com.lifeline.openicu.ambulance.service;
+
+/**
+ * A hospital with at least one free bed of the requested type, ranked for an ambulance.
+ *
+ * @param hospitalId the hospital
+ * @param hospitalName the hospital name
+ * @param latitude hospital latitude, NaN without coordinates
+ * @param longitude hospital longitude, NaN without coordinates
+ * @param distanceKm great-circle distance from the ambulance
+ * @param availableBeds free beds of the requested type at the hospital
+ * @param candidateBedId a free bed to try first, or null to pick from the availability index
+ * @param travelTimeSeconds road travel time from the ambulance, NaN when not computed and
+ *                          infinity when the hospital cannot be reached by road
+ * @param score ranking score from the request's scorer (lower is better), NaN until ranked
+ */
+public record RoutingCandidate(Long hospitalId, String hospitalName, double latitude, double longitude,
+        double distanceKm, int availableBeds, Long candidateBedId, double travelTimeSeconds, double score) {
+
+    // Average road speed used to turn distance into an estimated time when no road time is known
+    static final double FALLBACK_SPEED_KMH = 40.0;
+
+    public RoutingCandidate(Long hospitalId, String hospitalName, double latitude, double longitude,
+            double distanceKm, int availableBeds, Long candidateBedId) {
+        this(hospitalId, hospitalName, latitude, longitude, distanceKm, availableBeds, candidateBedId,
+                Double.NaN, Double.NaN);
+    }
+
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    public boolean hasTravelTime() {
+        return !Double.isNaN(travelTimeSeconds);
+    }
+
+    /**
+     * Expected time to reach the hospital: road travel time when known, otherwise the
+     * great-circle distance at an average road speed.
+     */
+    public double estimatedSeconds() {
+        return hasTravelTime() ? travelTimeSeconds : distanceKm / FALLBACK_SPEED_KMH * 3600.0;
+    }
+
+    /**
+     * Road travel time in minutes, or null when not computed or unreachable.
+     */
+    public Double etaMinutes() {
+        return hasTravelTime() && !Double.isInfinite(travelTimeSeconds) ? travelTimeSeconds / 60.0 : null;
+    }
+
+    public RoutingCandidate withTravelTime(double seconds) {
+        return new RoutingCandidate(hospitalId, hospitalName, latitude, longitude, distanceKm, availableBeds,
+                candidateBedId, seconds, score);
+    }
+
+    public RoutingCandidate withScore(double value) {
+        return new RoutingCandidate(hospitalId, hospitalName, latitude, longitude, distanceKm, availableBeds,
+                candidateBedId, travelTimeSeconds, value);
+    }
+}
@@ -0,0 +1,30 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import com.lifeline.openicu.bed.entity.BedType;
+
+import java.util.List;
+
+/**
+ * Source of ranked routing candidates. The active implementation is chosen with
+ * openicu.routing.strategy; claiming and reserving beds is the same for all of them.
+ */
+public interface RoutingStrategy {
+
+    /**
+     * The strategy setting this implementation answers to.
+     */
+    RoutingProperties.Strategy type();
+
+    /**
+     * Nearest hospitals with a free bed of the given type.
+     * Hospitals without coordinates rank behind every located one.
+     *
+     * @param latitude ambulance latitude
+     * @param longitude ambulance longitude
+     * @param bedType the requested bed type
+     * @param limit maximum number of candidates
+     * @return candidates ordered by ascending distance
+     */
+    List<RoutingCandidate> findCandidates(double latitude, double longitude, BedType bedType, int limit);
+}
@@ -0,0 +1,83 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.index.GeoBox;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routing candidates from one set-based query: hospitals joined to their available
+ * beds of the requested type, minus beds held by an active reservation, grouped per
+ * hospital and ranked by distance in the database.
+ * The query is first bounded to a box around the ambulance, widened until it holds
+ * enough hospitals, so distances are only computed for nearby rows; only when even the
+ * widest box falls short does it run over every hospital.
+ */
+@Component
+public class SqlRoutingStrategy implements RoutingStrategy {
+
+    // Search radii tried in turn before falling back to an unbounded query
+    private static final double[] SEARCH_RADII_KM = {25.0, 100.0, 400.0, 1600.0};
+
+    private final BedRepository bedRepository;
+
+    public SqlRoutingStrategy(BedRepository bedRepository) {
+        this.bedRepository = bedRepository;
+    }
+
+    @Override
+    public RoutingProperties.Strategy type() {
+        return RoutingProperties.Strategy.SQL;
+    }
+
+    @Override
+    public List<RoutingCandidate> findCandidates(double latitude, double longitude, BedType bedType, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = null;
+        for (double radiusKm : SEARCH_RADII_KM) {
+            GeoBox box = GeoBox.around(latitude, longitude, radiusKm);
+            List<Object[]> bounded = bedRepository.findNearestHospitalsWithFreeBedsWithin(
+                    latitude, longitude, box.minCell(), box.maxCell(),
+                    box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                    bedType.name(), now, limit);
+            // The box holds every hospital within the radius, so a full result inside it is exact
+            if (limit > 0 && bounded.size() == limit && ((Number) bounded.get(limit - 1)[4]).doubleValue() <= radiusKm) {
+                rows = bounded;
+                break;
+            }
+        }
+        if (rows == null) {
+            rows = bedRepository.findNearestHospitalsWithFreeBeds(
+                    latitude, longitude, bedType.name(), now, limit);
+        }
+
+        List<RoutingCandidate> candidates = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            candidates.add(parseCandidateFromRow(row));
+        }
+        return candidates;
+    }
+
+    /**
+     * Row layout: hospital id, name, latitude, longitude, distance (null without coordinates),
+     * free bed count, lowest free bed id.
+     */
+    private RoutingCandidate parseCandidateFromRow(Object[] row) {
+        Number latitude = (Number) row[2];
+        Number longitude = (Number) row[3];
+        Number distance = (Number) row[4];
+        return new RoutingCandidate(
+                ((Number) row[0]).longValue(),
+                (String) row[1],
+                latitude != null ? latitude.doubleValue() : Double.NaN,
+                longitude != null ? longitude.doubleValue() : Double.NaN,
+                distance != null ? distance.doubleValue() : IndexRoutingStrategy.UNLOCATED_DISTANCE_KM,
+                ((Number) row[5]).intValue(),
+                ((Number) row[6]).longValue());
+    }
+}
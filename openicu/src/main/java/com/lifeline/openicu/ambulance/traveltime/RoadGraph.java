@@ -0,0 +1,258 @@
+package com.lifeline.openicu.ambulance.traveltime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Directed road graph with travel times, held in compressed sparse row arrays so that
+ * million-node regional extracts fit comfortably in memory.
+ *
+ * File format (plain text, produced offline e.g. from an OSM extract):
+ * <pre>
+ * # comment lines and blank lines are ignored
+ * nodes &lt;count&gt;
+ * &lt;latitude&gt; &lt;longitude&gt;                 one line per node, ids are 0-based line order
+ * edges &lt;count&gt;
+ * &lt;from&gt; &lt;to&gt; &lt;travel time seconds&gt;    one line per directed edge
+ * </pre>
+ * Two-way roads are listed once in each direction.
+ */
+public final class RoadGraph {
+
+    /**
+     * Coordinates further than this from every node are off the network.
+     */
+    public static final double MAX_SNAP_KM = 10.0;
+
+    // Bucket size for snapping coordinates to the nearest node, roughly 1 km
+    private static final double CELL_DEGREES = 0.01;
+
+    private static final double KM_PER_DEGREE = 111.195;
+
+    // Floor on the longitude scale, so the search near a pole stays bounded
+    private static final double MIN_LONGITUDE_SCALE = 0.05;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Forward adjacency: edges of node v are forwardTargets[forwardOffsets[v] .. forwardOffsets[v + 1])
+    private final int[] forwardOffsets;
+    private final int[] forwardTargets;
+    private final int[] forwardMillis;
+
+    // Reverse adjacency, used to compute distances towards landmarks
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final int[] reverseMillis;
+
+    private final Map<Long, int[]> cells;
+
+    private RoadGraph(double[] latitudes, double[] longitudes, int[] from, int[] to, int[] millis) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        int nodes = latitudes.length;
+
+        forwardOffsets = new int[nodes + 1];
+        forwardTargets = new int[from.length];
+        forwardMillis = new int[from.length];
+        buildAdjacency(nodes, from, to, millis, forwardOffsets, forwardTargets, forwardMillis);
+
+        reverseOffsets = new int[nodes + 1];
+        reverseTargets = new int[from.length];
+        reverseMillis = new int[from.length];
+        buildAdjacency(nodes, to, from, millis, reverseOffsets, reverseTargets, reverseMillis);
+
+        cells = buildCells(latitudes, longitudes);
+    }
+
+    /**
+     * Read a graph file in the format described on this class.
+     *
+     * @param path the graph file
+     * @return the loaded graph
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static RoadGraph load(Path path) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            int nodes = Integer.parseInt(header(reader, "nodes"));
+            double[] latitudes = new double[nodes];
+            double[] longitudes = new double[nodes];
+            for (int i = 0; i < nodes; i++) {
+                String[] parts = fields(reader, 2);
+                latitudes[i] = Double.parseDouble(parts[0]);
+                longitudes[i] = Double.parseDouble(parts[1]);
+            }
+
+            int edges = Integer.parseInt(header(reader, "edges"));
+            int[] from = new int[edges];
+            int[] to = new int[edges];
+            int[] millis = new int[edges];
+            for (int i = 0; i < edges; i++) {
+                String[] parts = fields(reader, 3);
+                from[i] = Integer.parseInt(parts[0]);
+                to[i] = Integer.parseInt(parts[1]);
+                millis[i] = (int) Math.round(Double.parseDouble(parts[2]) * 1000);
+                if (from[i] < 0 || from[i] >= nodes || to[i] < 0 || to[i] >= nodes || millis[i] < 0) {
+                    throw new IOException("Invalid edge " + (i + 1) + " in " + path);
+                }
+            }
+            return new RoadGraph(latitudes, longitudes, from, to, millis);
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed road graph " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return forwardTargets.length;
+    }
+
+    /**
+     * Node closest to a coordinate, within {@link #MAX_SNAP_KM}.
+     *
+     * @return the node id, or -1 if no node is close enough
+     */
+    public int nearestNode(double latitude, double longitude) {
+        int row = (int) Math.floor(latitude / CELL_DEGREES);
+        int column = (int) Math.floor(longitude / CELL_DEGREES);
+        double scale = Math.max(MIN_LONGITUDE_SCALE, Math.cos(Math.toRadians(latitude)));
+        double maxSnapDegrees = MAX_SNAP_KM / KM_PER_DEGREE;
+        // Rings needed to cover the snap distance along the narrower longitude axis
+        int maxRing = (int) Math.ceil(maxSnapDegrees / (CELL_DEGREES * scale));
+        int best = -1;
+        double bestDistance = Math.nextUp(maxSnapDegrees * maxSnapDegrees);
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                // Inner rows of the ring only contribute their two edge cells
+                int step = r == row - ring || r == row + ring || ring == 0 ? 1 : 2 * ring;
+                for (int c = column - ring; c <= column + ring; c += step) {
+                    int[] nodes = cells.get(cellKey(r, c));
+                    if (nodes == null) {
+                        continue;
+                    }
+                    for (int node : nodes) {
+                        double dLat = latitudes[node] - latitude;
+                        double dLon = (longitudes[node] - longitude) * scale;
+                        double distance = dLat * dLat + dLon * dLon;
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = node;
+                        }
+                    }
+                }
+            }
+            // One more ring cannot hold a closer node once the best is inside the cleared square
+            if (best >= 0 && Math.sqrt(bestDistance) <= ring * CELL_DEGREES * scale) {
+                return best;
+            }
+        }
+        return best;
+    }
+
+    int forwardStart(int node) {
+        return forwardOffsets[node];
+    }
+
+    int forwardEnd(int node) {
+        return forwardOffsets[node + 1];
+    }
+
+    int forwardTarget(int edge) {
+        return forwardTargets[edge];
+    }
+
+    int forwardMillis(int edge) {
+        return forwardMillis[edge];
+    }
+
+    int reverseStart(int node) {
+        return reverseOffsets[node];
+    }
+
+    int reverseEnd(int node) {
+        return reverseOffsets[node + 1];
+    }
+
+    int reverseTarget(int edge) {
+        return reverseTargets[edge];
+    }
+
+    int reverseMillis(int edge) {
+        return reverseMillis[edge];
+    }
+
+    private static void buildAdjacency(int nodes, int[] from, int[] to, int[] millis,
+            int[] offsets, int[] targets, int[] weights) {
+        for (int source : from) {
+            offsets[source + 1]++;
+        }
+        for (int v = 0; v < nodes; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, nodes);
+        for (int i = 0; i < from.length; i++) {
+            int slot = cursor[from[i]]++;
+            targets[slot] = to[i];
+            weights[slot] = millis[i];
+        }
+    }
+
+    private static Map<Long, int[]> buildCells(double[] latitudes, double[] longitudes) {
+        Map<Long, int[]> cells = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        for (int v = 0; v < latitudes.length; v++) {
+            sizes.merge(cellKey(latitudes[v], longitudes[v]), 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : sizes.entrySet()) {
+            cells.put(entry.getKey(), new int[entry.getValue()]);
+        }
+        Map<Long, Integer> fill = new HashMap<>();
+        for (int v = 0; v < latitudes.length; v++) {
+            long key = cellKey(latitudes[v], longitudes[v]);
+            int index = fill.merge(key, 1, Integer::sum) - 1;
+            cells.get(key)[index] = v;
+        }
+        return cells;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey((int) Math.floor(latitude / CELL_DEGREES), (int) Math.floor(longitude / CELL_DEGREES));
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) ^ (column & 0xffffffffL);
+    }
+
+    private static String header(BufferedReader reader, String name) throws IOException {
+        String[] parts = fields(reader, 2);
+        if (!parts[0].equals(name)) {
+            throw new IOException("Expected '" + name + " <count>' but found '" + String.join(" ", parts) + "'");
+        }
+        return parts[1];
+    }
+
+    private static String[] fields(BufferedReader reader, int expected) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            if (parts.length < expected) {
+                throw new IOException("Expected " + expected + " fields but found '" + line + "'");
+            }
+            return parts;
+        }
+        throw new IOException("Unexpected end of road graph file");
+    }
+}
@@ -0,0 +1,400 @@
+package com.lifeline.openicu.ambulance.traveltime;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Optional road-network travel-time engine.
+ * Loads a preprocessed road graph from openicu.routing.road-graph and answers
+ * one-to-many travel-time queries with a single search from the origin that stops
+ * once every destination is settled. For a few destinations the search is an A*
+ * guided by ALT landmark bounds (A*, landmarks, triangle inequality): a few landmarks
+ * are chosen at load time and shortest times to and from each are precomputed, which
+ * gives a lower bound on the remaining time from any node and keeps the search to the
+ * corridors towards the destinations instead of a full Dijkstra flood. For many
+ * destinations the bound costs more than it saves and the search is a plain Dijkstra.
+ * Search state is taken from a pool bounded by openicu.routing.travel-time-searches, so
+ * memory does not grow with the number of request threads.
+ * When no graph is configured the engine is unavailable and routing keeps
+ * ranking by great-circle distance.
+ */
+@Component
+public class TravelTimeEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelTimeEngine.class);
+
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Above this many distinct destinations the search runs without the landmark bound
+    private static final int MAX_GOAL_DIRECTED_TARGETS = 8;
+
+    private final RoutingProperties routingProperties;
+
+    private volatile RoadGraph graph;
+
+    // Per landmark: shortest time from the landmark to every node, and from every node to the landmark
+    private int[][] fromLandmark;
+    private int[][] toLandmark;
+
+    // Search state for at most as many concurrent queries as there are permits, reused across queries
+    private final Semaphore searchPermits;
+    private final Queue<SearchSpace> idleSearchSpaces = new ConcurrentLinkedQueue<>();
+
+    public TravelTimeEngine(RoutingProperties routingProperties) {
+        this.routingProperties = routingProperties;
+        this.searchPermits = new Semaphore(Math.max(1, routingProperties.getTravelTimeSearches()));
+    }
+
+    /**
+     * Load the configured road graph and precompute landmarks.
+     * A missing or unreadable graph is logged and leaves the engine unavailable.
+     */
+    @PostConstruct
+    public void load() {
+        String location = routingProperties.getRoadGraph();
+        if (location == null || location.isBlank()) {
+            logger.info("No road graph configured, routing ranks hospitals by great-circle distance");
+            return;
+        }
+
+        try {
+            long startedAt = System.currentTimeMillis();
+            RoadGraph loaded = RoadGraph.load(Path.of(location));
+            precomputeLandmarks(loaded, routingProperties.getLandmarks());
+            graph = loaded;
+            logger.info("Road graph loaded from {}: {} nodes, {} edges, {} landmarks in {} ms",
+                    location, loaded.nodeCount(), loaded.edgeCount(), fromLandmark.length,
+                    System.currentTimeMillis() - startedAt);
+        } catch (IOException e) {
+            logger.error("Failed to load road graph from {}, falling back to great-circle distance", location, e);
+        }
+    }
+
+    /**
+     * Whether a road graph is loaded and travel times can be computed.
+     */
+    public boolean isAvailable() {
+        return graph != null;
+    }
+
+    /**
+     * Travel times from one origin to several destinations.
+     *
+     * @param latitude origin latitude
+     * @param longitude origin longitude
+     * @param destinations destination coordinates as {latitude, longitude} pairs
+     * @return travel time in seconds per destination; NaN if the origin is off the network,
+     *         infinity for destinations that are off the network or unreachable
+     */
+    public double[] travelTimesSeconds(double latitude, double longitude, double[][] destinations) {
+        double[] result = new double[destinations.length];
+        RoadGraph current = graph;
+        int origin = current == null ? -1 : current.nearestNode(latitude, longitude);
+        if (origin < 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+
+        int[] targets = new int[destinations.length];
+        for (int i = 0; i < destinations.length; i++) {
+            targets[i] = current.nearestNode(destinations[i][0], destinations[i][1]);
+        }
+        int[] distinctTargets = Arrays.stream(targets).filter(target -> target >= 0).sorted().distinct().toArray();
+
+        SearchSpace space = acquireSearchSpace(current);
+        try {
+            search(current, space, origin, distinctTargets);
+            for (int i = 0; i < destinations.length; i++) {
+                int millis = targets[i] < 0 ? UNREACHABLE : space.distance(targets[i]);
+                result[i] = millis == UNREACHABLE ? Double.POSITIVE_INFINITY : millis / 1000.0;
+            }
+        } finally {
+            releaseSearchSpace(space);
+        }
+        return result;
+    }
+
+    /**
+     * Shortest-time search from the origin until every target is settled, leaving the
+     * targets' travel times in the search space. Nodes are keyed on their time from the
+     * origin plus a lower bound on the time to the nearest target (zero for a plain Dijkstra);
+     * the bound never overestimates, so each target's time is final when it is first settled.
+     *
+     * @param targets distinct target nodes in ascending order
+     */
+    private void search(RoadGraph graph, SearchSpace space, int origin, int[] targets) {
+        space.reset();
+        if (targets.length == 0) {
+            return;
+        }
+        boolean goalDirected = targets.length <= MAX_GOAL_DIRECTED_TARGETS;
+        boolean[] settled = new boolean[targets.length];
+        int remaining = targets.length;
+
+        space.setDistance(origin, 0, goalDirected ? lowerBound(origin, targets) : 0);
+        space.heap.push(origin, space.bound(origin));
+
+        while (!space.heap.isEmpty()) {
+            int node = space.heap.peekNode();
+            long key = space.heap.peekKey();
+            space.heap.pop();
+            int distance = space.distance(node);
+            // Stale heap entry for a node that has since been reached more cheaply
+            if (key > (long) distance + space.bound(node)) {
+                continue;
+            }
+            int target = Arrays.binarySearch(targets, node);
+            if (target >= 0 && !settled[target]) {
+                settled[target] = true;
+                if (--remaining == 0) {
+                    return;
+                }
+            }
+            for (int e = graph.forwardStart(node); e < graph.forwardEnd(node); e++) {
+                int next = graph.forwardTarget(e);
+                long candidate = (long) distance + graph.forwardMillis(e);
+                if (candidate < space.distance(next)) {
+                    int bound = space.isTouched(next) ? space.bound(next)
+                            : goalDirected ? lowerBound(next, targets) : 0;
+                    space.setDistance(next, (int) candidate, bound);
+                    space.heap.push(next, candidate + bound);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower bound on the travel time from node to the nearest of the targets.
+     */
+    private int lowerBound(int node, int[] targets) {
+        int bound = Integer.MAX_VALUE;
+        for (int target : targets) {
+            bound = Math.min(bound, lowerBound(node, target));
+        }
+        return bound;
+    }
+
+    /**
+     * ALT lower bound on the travel time from node to target, from the triangle inequality
+     * over every landmark in both directions.
+     */
+    private int lowerBound(int node, int target) {
+        int bound = 0;
+        for (int l = 0; l < fromLandmark.length; l++) {
+            int[] from = fromLandmark[l];
+            int[] to = toLandmark[l];
+            if (from[target] != UNREACHABLE && from[node] != UNREACHABLE) {
+                bound = Math.max(bound, from[target] - from[node]);
+            }
+            if (to[node] != UNREACHABLE && to[target] != UNREACHABLE) {
+                bound = Math.max(bound, to[node] - to[target]);
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Pick landmarks by farthest-point selection and run a forward and a reverse
+     * Dijkstra from each.
+     */
+    private void precomputeLandmarks(RoadGraph graph, int count) {
+        int landmarks = Math.max(0, Math.min(count, graph.nodeCount()));
+        fromLandmark = new int[landmarks][];
+        toLandmark = new int[landmarks][];
+
+        // Minimum time from any landmark chosen so far; the next landmark maximises it
+        int[] nearest = new int[graph.nodeCount()];
+        Arrays.fill(nearest, UNREACHABLE);
+        int next = 0;
+        for (int l = 0; l < landmarks; l++) {
+            fromLandmark[l] = dijkstra(graph, next, true);
+            toLandmark[l] = dijkstra(graph, next, false);
+
+            int farthest = next;
+            long farthestTime = -1;
+            for (int v = 0; v < nearest.length; v++) {
+                nearest[v] = Math.min(nearest[v], fromLandmark[l][v]);
+                if (nearest[v] != UNREACHABLE && nearest[v] > farthestTime) {
+                    farthestTime = nearest[v];
+                    farthest = v;
+                }
+            }
+            next = farthest;
+        }
+    }
+
+    private static int[] dijkstra(RoadGraph graph, int source, boolean forward) {
+        int[] distance = new int[graph.nodeCount()];
+        Arrays.fill(distance, UNREACHABLE);
+        distance[source] = 0;
+        MinHeap heap = new MinHeap(64);
+        heap.push(source, 0);
+
+        while (!heap.isEmpty()) {
+            int node = heap.peekNode();
+            long key = heap.peekKey();
+            heap.pop();
+            if (key > distance[node]) {
+                continue;
+            }
+            int start = forward ? graph.forwardStart(node) : graph.reverseStart(node);
+            int end = forward ? graph.forwardEnd(node) : graph.reverseEnd(node);
+            for (int e = start; e < end; e++) {
+                int next = forward ? graph.forwardTarget(e) : graph.reverseTarget(e);
+                long candidate = (long) distance[node] + (forward ? graph.forwardMillis(e) : graph.reverseMillis(e));
+                if (candidate < distance[next]) {
+                    distance[next] = (int) candidate;
+                    heap.push(next, candidate);
+                }
+            }
+        }
+        return distance;
+    }
+
+    // Waits while every permitted search space is in use
+    private SearchSpace acquireSearchSpace(RoadGraph current) {
+        searchPermits.acquireUninterruptibly();
+        SearchSpace space = idleSearchSpaces.poll();
+        if (space == null || space.distances.length != current.nodeCount()) {
+            space = new SearchSpace(current.nodeCount());
+        }
+        return space;
+    }
+
+    private void releaseSearchSpace(SearchSpace space) {
+        idleSearchSpaces.offer(space);
+        searchPermits.release();
+    }
+
+    /**
+     * Tentative distances and target bounds for one search, reset in time proportional
+     * to the nodes touched.
+     */
+    private static final class SearchSpace {
+        private final int[] distances;
+        private final int[] bounds;
+        private int[] touched = new int[1024];
+        private int touchedCount;
+        private final MinHeap heap = new MinHeap(1024);
+
+        private SearchSpace(int nodes) {
+            distances = new int[nodes];
+            bounds = new int[nodes];
+            Arrays.fill(distances, UNREACHABLE);
+        }
+
+        private int distance(int node) {
+            return distances[node];
+        }
+
+        private int bound(int node) {
+            return bounds[node];
+        }
+
+        private boolean isTouched(int node) {
+            return distances[node] != UNREACHABLE;
+        }
+
+        // The bound is computed once, when the node is first reached
+        private void setDistance(int node, int distance, int bound) {
+            if (distances[node] == UNREACHABLE) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = node;
+                bounds[node] = bound;
+            }
+            distances[node] = distance;
+        }
+
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                distances[touched[i]] = UNREACHABLE;
+            }
+            touchedCount = 0;
+            heap.clear();
+        }
+    }
+
+    /**
+     * Binary min-heap of (node, key) pairs with lazy deletion.
+     */
+    private static final class MinHeap {
+        private int[] nodes;
+        private long[] keys;
+        private int size;
+
+        private MinHeap(int capacity) {
+            nodes = new int[capacity];
+            keys = new long[capacity];
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int peekNode() {
+            return nodes[0];
+        }
+
+        private long peekKey() {
+            return keys[0];
+        }
+
+        private void clear() {
+            size = 0;
+        }
+
+        private void push(int node, long key) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = key;
+        }
+
+        private void pop() {
+            int lastNode = nodes[--size];
+            long lastKey = keys[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= lastKey) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            keys[i] = lastKey;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "beds", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"bed_number", "hospital_id"})
+}, indexes = {
+    @Index(name = "idx_beds_hospital_type_status", columnList = "hospital_id, bed_type, bed_status")
 })
 public class Bed {
     
@@ -33,6 +35,11 @@ public class Bed {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    // Optimistic lock; bumped by every status change and every reservation claim
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -112,4 +119,12 @@ public class Bed {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.lifeline.openicu.bed.index;
+
+import com.lifeline.openicu.bed.entity.BedType;
+
+/**
+ * Application event raised by BedAvailabilityIndex whenever the number of free beds of a
+ * type changes at a hospital. In-process views of availability listen for it to stay current.
+ *
+ * @param hospitalId the hospital whose free beds changed
+ * @param bedType the bed type that changed
+ */
+public record BedAvailabilityChangedEvent(Long hospitalId, BedType bedType) {
+}
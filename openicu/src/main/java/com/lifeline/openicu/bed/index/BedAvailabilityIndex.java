@@ -0,0 +1,293 @@
+package com.lifeline.openicu.bed.index;
+
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.entity.Bed;
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resident index of bed availability, kept in memory so that ambulance routing
+ * can find free beds without querying the database.
+ * Holds, per bed type and hospital, the ids of beds that are AVAILABLE and not
+ * held by an active reservation. Loaded once at startup and kept current by
+ * BedService and the reservation path.
+ * Each bed slot carries a compare-and-set flag so concurrent dispatches can claim
+ * beds without a global lock. Every change to a hospital's free beds after startup
+ * raises a BedAvailabilityChangedEvent.
+ */
+@Component
+public class BedAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BedAvailabilityIndex.class);
+
+    private final BedRepository bedRepository;
+    private final BedReservationRepository bedReservationRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    // Every AVAILABLE bed (reserved or not), keyed by bed id
+    private final Map<Long, BedSlot> slots = new ConcurrentHashMap<>();
+
+    // Free (available and unreserved) bed ids per bed type and hospital
+    private final Map<BedType, Map<Long, Set<Long>>> freeBeds = new EnumMap<>(BedType.class);
+    private final Map<BedType, AtomicInteger> freeTotals = new EnumMap<>(BedType.class);
+
+    public BedAvailabilityIndex(BedRepository bedRepository,
+                                BedReservationRepository bedReservationRepository,
+                                ApplicationEventPublisher applicationEventPublisher) {
+        this.bedRepository = bedRepository;
+        this.bedReservationRepository = bedReservationRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        for (BedType bedType : BedType.values()) {
+            freeBeds.put(bedType, new ConcurrentHashMap<>());
+            freeTotals.put(bedType, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Load all available beds and active reservations from the database.
+     */
+    @PostConstruct
+    public void load() {
+        List<Bed> availableBeds = bedRepository.findByBedStatus(BedStatus.AVAILABLE);
+        List<BedReservation> activeReservations = bedReservationRepository
+                .findByStatusAndExpiryTimeAfter(ReservationStatus.RESERVED, LocalDateTime.now());
+
+        Set<Long> reservedBedIds = new HashSet<>();
+        for (BedReservation reservation : activeReservations) {
+            reservedBedIds.add(reservation.getBedId());
+        }
+
+        for (Bed bed : availableBeds) {
+            BedSlot slot = new BedSlot(bed.getId(), bed.getHospitalId(), bed.getBedType(), bed.getVersion());
+            boolean reserved = reservedBedIds.contains(bed.getId());
+            slot.reserved.set(reserved);
+            slots.put(bed.getId(), slot);
+            if (!reserved) {
+                addFree(slot);
+            }
+        }
+
+        logger.info("Bed availability index loaded: {} available beds, {} reserved",
+                availableBeds.size(), reservedBedIds.size());
+    }
+
+    /**
+     * Reflect a created or updated bed in the index. A bed that becomes AVAILABLE while
+     * still held by an active reservation is tracked as reserved, not free.
+     *
+     * @param bed the bed as persisted
+     */
+    public void onBedSaved(Bed bed) {
+        BedSlot existing = slots.get(bed.getId());
+
+        if (bed.getBedStatus() != BedStatus.AVAILABLE) {
+            if (existing != null) {
+                boolean removed;
+                synchronized (existing) {
+                    removed = removeFree(existing);
+                    slots.remove(bed.getId(), existing);
+                }
+                if (removed) {
+                    changed(existing);
+                }
+            }
+            return;
+        }
+
+        if (existing != null) {
+            existing.version = bed.getVersion();
+            return;
+        }
+
+        BedSlot slot = new BedSlot(bed.getId(), bed.getHospitalId(), bed.getBedType(), bed.getVersion());
+        if (bedReservationRepository.existsByBedIdAndStatus(bed.getId(), ReservationStatus.RESERVED)) {
+            slot.reserved.set(true);
+            slots.put(bed.getId(), slot);
+            return;
+        }
+        slots.put(bed.getId(), slot);
+        if (addFree(slot)) {
+            changed(slot);
+        }
+    }
+
+    /**
+     * Atomically claim a free bed. Exactly one caller wins for a given bed until it
+     * is released again; losers get false and should move on to another bed.
+     *
+     * @param bedId the bed to claim
+     * @return true if this caller now holds the bed
+     */
+    public boolean tryClaim(Long bedId) {
+        BedSlot slot = slots.get(bedId);
+        if (slot == null || !slot.reserved.compareAndSet(false, true)) {
+            return false;
+        }
+        boolean removed = false;
+        synchronized (slot) {
+            if (slot.reserved.get()) {
+                removed = removeFree(slot);
+            }
+        }
+        if (removed) {
+            changed(slot);
+        }
+        return true;
+    }
+
+    /**
+     * Mark a bed as held by a reservation made elsewhere (e.g. by another instance).
+     *
+     * @param bedId the reserved bed
+     */
+    public void markReserved(Long bedId) {
+        BedSlot slot = slots.get(bedId);
+        if (slot == null) {
+            return;
+        }
+        boolean removed;
+        synchronized (slot) {
+            slot.reserved.set(true);
+            removed = removeFree(slot);
+        }
+        if (removed) {
+            changed(slot);
+        }
+    }
+
+    /**
+     * Return a bed to the free pool once its reservation or claim has ended.
+     * Beds that are no longer AVAILABLE are not tracked and are ignored.
+     *
+     * @param bedId the released bed
+     */
+    public void release(Long bedId) {
+        BedSlot slot = slots.get(bedId);
+        if (slot == null) {
+            return;
+        }
+        boolean added = false;
+        synchronized (slot) {
+            if (slot.reserved.compareAndSet(true, false)) {
+                added = addFree(slot);
+            }
+        }
+        if (added) {
+            changed(slot);
+        }
+    }
+
+    /**
+     * Last version of the bed row observed by the index, used for conditional claims.
+     *
+     * @return the version, or null if the bed is not tracked
+     */
+    public Long version(Long bedId) {
+        BedSlot slot = slots.get(bedId);
+        return slot == null ? null : slot.version;
+    }
+
+    /**
+     * Record the version of a bed row after a successful conditional claim.
+     */
+    public void updateVersion(Long bedId, Long version) {
+        BedSlot slot = slots.get(bedId);
+        if (slot != null) {
+            slot.version = version;
+        }
+    }
+
+    /**
+     * Free bed ids of the given type at a hospital, in ascending order.
+     *
+     * @param hospitalId the hospital
+     * @param bedType the requested bed type
+     * @return free bed ids, empty if none
+     */
+    public List<Long> freeBedIds(Long hospitalId, BedType bedType) {
+        Set<Long> bedIds = freeBeds.get(bedType).get(hospitalId);
+        if (bedIds == null) {
+            return List.of();
+        }
+        List<Long> result = new ArrayList<>(bedIds);
+        Collections.sort(result);
+        return result;
+    }
+
+    /**
+     * Number of free beds of the given type at a hospital.
+     */
+    public int freeBedCount(Long hospitalId, BedType bedType) {
+        Set<Long> bedIds = freeBeds.get(bedType).get(hospitalId);
+        return bedIds == null ? 0 : bedIds.size();
+    }
+
+    /**
+     * Number of free beds of the given type across all hospitals.
+     */
+    public int freeBedCount(BedType bedType) {
+        return freeTotals.get(bedType).get();
+    }
+
+    private boolean addFree(BedSlot slot) {
+        boolean added = freeBeds.get(slot.bedType)
+                .computeIfAbsent(slot.hospitalId, id -> ConcurrentHashMap.newKeySet())
+                .add(slot.bedId);
+        if (added) {
+            freeTotals.get(slot.bedType).incrementAndGet();
+        }
+        return added;
+    }
+
+    private boolean removeFree(BedSlot slot) {
+        Set<Long> bedIds = freeBeds.get(slot.bedType).get(slot.hospitalId);
+        if (bedIds != null && bedIds.remove(slot.bedId)) {
+            freeTotals.get(slot.bedType).decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    // Raised outside the slot lock so listeners never run while holding it
+    private void changed(BedSlot slot) {
+        applicationEventPublisher.publishEvent(new BedAvailabilityChangedEvent(slot.hospitalId, slot.bedType));
+    }
+
+    /**
+     * Indexed state of a single AVAILABLE bed.
+     */
+    private static final class BedSlot {
+        private final Long bedId;
+        private final Long hospitalId;
+        private final BedType bedType;
+        private final AtomicBoolean reserved = new AtomicBoolean();
+        private volatile Long version;
+
+        private BedSlot(Long bedId, Long hospitalId, BedType bedType, Long version) {
+            this.bedId = bedId;
+            this.hospitalId = hospitalId;
+            this.bedType = bedType;
+            this.version = version;
+        }
+    }
+}
@@ -4,10 +4,12 @@ import com.lifeline.openicu.bed.entity.Bed;
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -15,8 +17,94 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
     
     List<Bed> findByHospitalIdAndBedTypeAndBedStatus(Long hospitalId, BedType bedType, BedStatus bedStatus);
     
+    List<Bed> findByBedStatus(BedStatus bedStatus);
+    
     int countByHospitalIdAndBedTypeAndBedStatus(Long hospitalId, BedType bedType, BedStatus bedStatus);
     
+    /**
+     * Bed counts per type at a hospital for one status, in a single query.
+     * Returns rows of [bed type, count]; types without beds are absent.
+     */
+    @Query("SELECT b.bedType, COUNT(b) FROM Bed b " +
+           "WHERE b.hospitalId = :hospitalId AND b.bedStatus = :status GROUP BY b.bedType")
+    List<Object[]> countByBedType(@Param("hospitalId") Long hospitalId, @Param("status") BedStatus status);
+    
+    /**
+     * Conditional claim: bumps the version only if the bed is still AVAILABLE and
+     * nobody has claimed or modified it since the given version was observed.
+     * Returns the number of rows updated (0 or 1).
+     */
+    @Modifying
+    @Query("UPDATE Bed b SET b.version = b.version + 1 " +
+           "WHERE b.id = :bedId AND b.version = :version AND b.bedStatus = :status")
+    int claimIfVersion(@Param("bedId") Long bedId,
+                       @Param("version") Long version,
+                       @Param("status") BedStatus status);
+    
+    /**
+     * Set-based routing query: hospitals with free beds of the given type, nearest first.
+     * A bed is free when it is AVAILABLE and not held by an unexpired RESERVED reservation.
+     * Distance uses the Haversine formula in portable SQL (H2 and PostgreSQL).
+     * Returns rows of [hospital id, name, latitude, longitude, distance km (null without
+     * coordinates), free bed count, lowest free bed id].
+     */
+    @Query(value = "SELECT h.id, h.name, h.latitude, h.longitude, " +
+           "  2 * 6371.0 * ASIN(LEAST(1.0, SQRT(" +
+           "    POWER(SIN(RADIANS(h.latitude - :latitude) / 2), 2) + " +
+           "    COS(RADIANS(:latitude)) * COS(RADIANS(h.latitude)) * " +
+           "    POWER(SIN(RADIANS(h.longitude - :longitude) / 2), 2)))) AS distance_km, " +
+           "  COUNT(b.id) AS free_beds, MIN(b.id) AS candidate_bed_id " +
+           "FROM hospitals h " +
+           "JOIN beds b ON b.hospital_id = h.id " +
+           "WHERE b.bed_type = :bedType AND b.bed_status = 'AVAILABLE' " +
+           "AND NOT EXISTS (SELECT 1 FROM bed_reservations r " +
+           "  WHERE r.bed_id = b.id AND r.status = 'RESERVED' AND r.expiry_time > :now) " +
+           "GROUP BY h.id, h.name, h.latitude, h.longitude " +
+           "ORDER BY CASE WHEN h.latitude IS NULL OR h.longitude IS NULL THEN 1 ELSE 0 END, " +
+           "  distance_km, h.id " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findNearestHospitalsWithFreeBeds(@Param("latitude") double latitude,
+                                                    @Param("longitude") double longitude,
+                                                    @Param("bedType") String bedType,
+                                                    @Param("now") LocalDateTime now,
+                                                    @Param("limit") int limit);
+    
+    /**
+     * As findNearestHospitalsWithFreeBeds, restricted to hospitals inside a bounding box.
+     * The geo cell range lets the hospital index narrow the rows before the box and the
+     * Haversine distance are evaluated; only located hospitals are returned.
+     */
+    @Query(value = "SELECT h.id, h.name, h.latitude, h.longitude, " +
+           "  2 * 6371.0 * ASIN(LEAST(1.0, SQRT(" +
+           "    POWER(SIN(RADIANS(h.latitude - :latitude) / 2), 2) + " +
+           "    COS(RADIANS(:latitude)) * COS(RADIANS(h.latitude)) * " +
+           "    POWER(SIN(RADIANS(h.longitude - :longitude) / 2), 2)))) AS distance_km, " +
+           "  COUNT(b.id) AS free_beds, MIN(b.id) AS candidate_bed_id " +
+           "FROM hospitals h " +
+           "JOIN beds b ON b.hospital_id = h.id " +
+           "WHERE h.geo_cell BETWEEN :minCell AND :maxCell " +
+           "AND h.latitude BETWEEN :minLatitude AND :maxLatitude " +
+           "AND h.longitude BETWEEN :minLongitude AND :maxLongitude " +
+           "AND b.bed_type = :bedType AND b.bed_status = 'AVAILABLE' " +
+           "AND NOT EXISTS (SELECT 1 FROM bed_reservations r " +
+           "  WHERE r.bed_id = b.id AND r.status = 'RESERVED' AND r.expiry_time > :now) " +
+           "GROUP BY h.id, h.name, h.latitude, h.longitude " +
+           "ORDER BY distance_km, h.id " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<Object[]> findNearestHospitalsWithFreeBedsWithin(@Param("latitude") double latitude,
+                                                          @Param("longitude") double longitude,
+                                                          @Param("minCell") long minCell,
+                                                          @Param("maxCell") long maxCell,
+                                                          @Param("minLatitude") double minLatitude,
+                                                          @Param("maxLatitude") double maxLatitude,
+                                                          @Param("minLongitude") double minLongitude,
+                                                          @Param("maxLongitude") double maxLongitude,
+                                                          @Param("bedType") String bedType,
+                                                          @Param("now") LocalDateTime now,
+                                                          @Param("limit") int limit);
+    
     @Query("SELECT COUNT(h) > 0 FROM Hospital h WHERE h.id = :hospitalId")
     boolean existsHospitalById(@Param("hospitalId") Long hospitalId);
 }
\ No newline at end of file
@@ -4,8 +4,11 @@ import com.lifeline.openicu.bed.entity.Bed;
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
 import com.lifeline.openicu.bed.exception.BedNotFoundException;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
 import com.lifeline.openicu.bed.repository.BedRepository;
 import com.lifeline.openicu.exception.HospitalNotFoundException;
+import com.lifeline.openicu.realtime.beds.service.BedRealtimeService;
+import com.lifeline.openicu.realtime.outbox.RealtimeOutbox;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,9 +17,16 @@ import java.util.List;
 public class BedService {
     
     private final BedRepository bedRepository;
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+    private final BedRealtimeService bedRealtimeService;
+    private final RealtimeOutbox realtimeOutbox;
     
-    public BedService(BedRepository bedRepository) {
+    public BedService(BedRepository bedRepository, BedAvailabilityIndex bedAvailabilityIndex,
+                      BedRealtimeService bedRealtimeService, RealtimeOutbox realtimeOutbox) {
         this.bedRepository = bedRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.bedRealtimeService = bedRealtimeService;
+        this.realtimeOutbox = realtimeOutbox;
     }
     
     public Bed createBed(Long hospitalId, String bedNumber, BedType bedType) {
@@ -26,7 +36,10 @@ public class BedService {
         }
         
         Bed bed = new Bed(bedNumber, hospitalId, bedType, BedStatus.AVAILABLE);
-        return bedRepository.save(bed);
+        Bed savedBed = bedRepository.save(bed);
+        bedAvailabilityIndex.onBedSaved(savedBed);
+        publishBedStatus(savedBed);
+        return savedBed;
     }
     
     public Bed updateBedStatus(Long bedId, BedStatus newStatus) {
@@ -34,7 +47,10 @@ public class BedService {
                 .orElseThrow(() -> new BedNotFoundException(bedId));
         
         bed.setBedStatus(newStatus);
-        return bedRepository.save(bed);
+        Bed savedBed = bedRepository.save(bed);
+        bedAvailabilityIndex.onBedSaved(savedBed);
+        publishBedStatus(savedBed);
+        return savedBed;
     }
     
     public List<Bed> getAvailableBeds(Long hospitalId, BedType bedType) {
@@ -54,4 +70,14 @@ public class BedService {
         
         return bedRepository.countByHospitalIdAndBedTypeAndBedStatus(hospitalId, bedType, BedStatus.AVAILABLE);
     }
+    
+    // Broadcast to /topic/beds once the change is committed
+    private void publishBedStatus(Bed bed) {
+        Long bedId = bed.getId();
+        Long hospitalId = bed.getHospitalId();
+        BedType bedType = bed.getBedType();
+        BedStatus bedStatus = bed.getBedStatus();
+        realtimeOutbox.publishAfterCommit("BED_STATUS",
+            () -> bedRealtimeService.onBedStatusChange(bedId, hospitalId, bedType, bedStatus));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.lifeline.openicu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ICU availability broadcast settings, bound from openicu.icu-availability.* properties.
+ * Example: openicu.icu-availability.coalesce-window=500ms
+ */
+@Component
+@ConfigurationProperties(prefix = "openicu.icu-availability")
+public class IcuAvailabilityProperties {
+
+    // Changes at a hospital within this window are merged into one event; zero publishes each change
+    private Duration coalesceWindow = Duration.ofMillis(250);
+
+    // Getters and Setters
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        this.coalesceWindow = coalesceWindow;
+    }
+}
@@ -0,0 +1,36 @@
+package com.lifeline.openicu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Realtime outbox settings, bound from openicu.realtime-outbox.* properties.
+ * Example: openicu.realtime-outbox.queue-capacity=50000
+ */
+@Component
+@ConfigurationProperties(prefix = "openicu.realtime-outbox")
+public class RealtimeOutboxProperties {
+
+    // Committed events waiting for the publisher
+    private int queueCapacity = 10_000;
+
+    // How long a committing thread waits for room in a full queue before dropping the event
+    private long offerTimeoutMillis = 50;
+
+    // Getters and Setters
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getOfferTimeoutMillis() {
+        return offerTimeoutMillis;
+    }
+
+    public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+}
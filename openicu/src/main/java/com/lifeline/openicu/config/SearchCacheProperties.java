@@ -0,0 +1,49 @@
+package com.lifeline.openicu.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Hospital search result cache settings, bound from openicu.search-cache.* properties.
+ * Example: openicu.search-cache.ttl=1m
+ */
+@Component
+@ConfigurationProperties(prefix = "openicu.search-cache")
+public class SearchCacheProperties {
+
+    // Set to false to send every search to the database
+    private boolean enabled = true;
+
+    // Cached result pages kept before the least recently used is evicted
+    private int maxEntries = 1000;
+
+    // How long a cached page is served before it is queried again
+    private Duration ttl = Duration.ofSeconds(30);
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
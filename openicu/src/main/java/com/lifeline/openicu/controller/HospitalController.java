@@ -1,12 +1,18 @@
 package com.lifeline.openicu.controller;
 
 import com.lifeline.openicu.dto.HospitalCreateDTO;
+import com.lifeline.openicu.dto.HospitalCursorPage;
 import com.lifeline.openicu.dto.HospitalResponseDTO;
 import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import com.lifeline.openicu.dto.HospitalSuggestionDTO;
+import com.lifeline.openicu.dto.HospitalTileDTO;
 import com.lifeline.openicu.dto.NearbyHospitalRequest;
 import com.lifeline.openicu.dto.NearbyHospitalResponse;
 import com.lifeline.openicu.exception.InvalidCoordinatesException;
 import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+import com.lifeline.openicu.index.HospitalSuggestIndex;
+import com.lifeline.openicu.index.HospitalTileIndex;
 import com.lifeline.openicu.service.HospitalService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
@@ -48,12 +54,16 @@ public class HospitalController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * List hospitals. With fields=, only those columns are selected and returned.
+     */
     @GetMapping
-    public ResponseEntity<Page<HospitalResponseDTO>> getAllHospitals(
+    public ResponseEntity<Page<?>> getAllHospitals(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String fields) {
         
         // Validate page size
         if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
@@ -83,12 +93,34 @@ public class HospitalController {
         // Create pageable with sorting
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
+        if (fields != null) {
+            return ResponseEntity.ok(hospitalService.getAllHospitals(pageable, hospitalService.parseFields(fields)));
+        }
+        
         Page<HospitalResponseDTO> hospitals = hospitalService.getAllHospitals(pageable);
         return ResponseEntity.ok(hospitals);
     }
 
+    /**
+     * Keyset (cursor) variant of getAllHospitals, selected by passing a cursor parameter.
+     * Start with an empty cursor and pass each page's nextCursor back to continue.
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<HospitalCursorPage> scrollAllHospitals(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        return ResponseEntity.ok(scroll(null, cursor, size, sortBy, sortDir, includeTotal));
+    }
+
+    /**
+     * Search hospitals. With fields=, only those columns are selected and returned.
+     */
     @GetMapping("/search")
-    public ResponseEntity<Page<HospitalResponseDTO>> searchHospitals(
+    public ResponseEntity<Page<?>> searchHospitals(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String state,
             @RequestParam(required = false) String district,
@@ -101,7 +133,8 @@ public class HospitalController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "name") String sortBy,
-            @RequestParam(defaultValue = "ASC") String sortDir) {
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(required = false) String fields) {
         
         // Validate page size
         if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
@@ -144,10 +177,89 @@ public class HospitalController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         // Delegate to service layer
+        if (fields != null) {
+            return ResponseEntity.ok(
+                hospitalService.searchHospitals(criteria, pageable, hospitalService.parseFields(fields)));
+        }
         Page<HospitalResponseDTO> results = hospitalService.searchHospitals(criteria, pageable);
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<HospitalSuggestionDTO>> suggestHospitals(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        // Validate limit
+        if (limit < 1 || limit > HospitalSuggestIndex.MAX_SUGGESTIONS) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Limit must be between 1 and %d", HospitalSuggestIndex.MAX_SUGGESTIONS)
+            );
+        }
+        
+        List<HospitalSuggestionDTO> suggestions = hospitalService.suggestHospitals(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Map tile of the hospital layer in z/x/y (Web Mercator) addressing: clusters with
+     * hospital count, centroid and free ICU beds at low zoom, single hospitals at high zoom.
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}")
+    public ResponseEntity<HospitalTileDTO> getHospitalTile(
+            @PathVariable int z,
+            @PathVariable int x,
+            @PathVariable int y) {
+        
+        // Validate tile coordinates
+        if (z < 0 || z > HospitalTileIndex.MAX_ZOOM) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Zoom must be between 0 and %d", HospitalTileIndex.MAX_ZOOM)
+            );
+        }
+        if (x < 0 || y < 0 || x >= 1 << z || y >= 1 << z) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Tile x and y must be between 0 and %d at zoom %d", (1 << z) - 1, z)
+            );
+        }
+        
+        return ResponseEntity.ok(hospitalService.getHospitalTile(z, x, y));
+    }
+
+    /**
+     * Keyset (cursor) variant of searchHospitals, selected by passing a cursor parameter.
+     */
+    @GetMapping(value = "/search", params = "cursor")
+    public ResponseEntity<HospitalCursorPage> scrollSearchHospitals(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String careType,
+            @RequestParam(required = false) Integer minBeds,
+            @RequestParam(required = false) String emergencyService,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String facility,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "name") String sortBy,
+            @RequestParam(defaultValue = "ASC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setKeyword(keyword);
+        criteria.setState(state);
+        criteria.setDistrict(district);
+        criteria.setCategory(category);
+        criteria.setCareType(careType);
+        criteria.setMinBeds(minBeds);
+        criteria.setEmergencyService(emergencyService);
+        criteria.setSpecialty(specialty);
+        criteria.setFacility(facility);
+        
+        return ResponseEntity.ok(scroll(criteria, cursor, size, sortBy, sortDir, includeTotal));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<HospitalResponseDTO> getHospitalById(@PathVariable Long id) {
         HospitalResponseDTO response = hospitalService.getHospitalById(id);
@@ -168,14 +280,51 @@ public class HospitalController {
         Map<String, Object> stats = new java.util.HashMap<>();
         stats.put("totalHospitals", totalHospitals);
         stats.put("message", "Hospital data loaded from CSV");
+        stats.put("searchCache", hospitalService.getSearchCacheStats());
+        stats.put("realtimeOutbox", hospitalService.getRealtimeOutboxStats());
         return ResponseEntity.ok(stats);
     }
     
+    /**
+     * Facet counts (state, city, district, category, care type) for the hospitals matching
+     * the given search filters, for rendering filter sidebars.
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<HospitalStatsDTO> getHospitalFacets(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String state,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String careType,
+            @RequestParam(required = false) Integer minBeds,
+            @RequestParam(required = false) String emergencyService,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(required = false) String facility) {
+        
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setKeyword(keyword);
+        criteria.setState(state);
+        criteria.setDistrict(district);
+        criteria.setCategory(category);
+        criteria.setCareType(careType);
+        criteria.setMinBeds(minBeds);
+        criteria.setEmergencyService(emergencyService);
+        criteria.setSpecialty(specialty);
+        criteria.setFacility(facility);
+        
+        return ResponseEntity.ok(hospitalService.getFacets(criteria));
+    }
+    
+    /**
+     * Hospitals within a radius, nearest first. With fields=, only those columns are
+     * selected and returned, plus distanceKm.
+     */
     @PostMapping("/nearby")
-    public ResponseEntity<Page<NearbyHospitalResponse>> findNearbyHospitals(
+    public ResponseEntity<Page<?>> findNearbyHospitals(
             @Valid @RequestBody NearbyHospitalRequest request,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
         
         // Validate page size
         if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
@@ -211,8 +360,42 @@ public class HospitalController {
         Pageable pageable = PageRequest.of(page, size);
         
         // Delegate to service layer
+        if (fields != null) {
+            return ResponseEntity.ok(
+                hospitalService.findNearbyHospitals(request, pageable, hospitalService.parseFields(fields)));
+        }
         Page<NearbyHospitalResponse> results = hospitalService.findNearbyHospitals(request, pageable);
         
         return ResponseEntity.ok(results);
     }
+
+    private HospitalCursorPage scroll(HospitalSearchCriteria criteria, String cursor, int size,
+                                      String sortBy, String sortDir, boolean includeTotal) {
+        // Validate page size
+        if (size < MIN_PAGE_SIZE || size > MAX_PAGE_SIZE) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Page size must be between %d and %d", MIN_PAGE_SIZE, MAX_PAGE_SIZE)
+            );
+        }
+        
+        // Validate sort field
+        if (!VALID_SORT_FIELDS.contains(sortBy)) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Invalid sort field '%s'. Valid fields are: %s", 
+                    sortBy, String.join(", ", VALID_SORT_FIELDS))
+            );
+        }
+        
+        // Create sort direction
+        Sort.Direction direction;
+        try {
+            direction = Sort.Direction.fromString(sortDir);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCriteriaException(
+                String.format("Invalid sort direction '%s'. Valid values are: ASC, DESC", sortDir)
+            );
+        }
+        
+        return hospitalService.scrollHospitals(criteria, sortBy, direction, cursor, size, includeTotal);
+    }
 }
@@ -0,0 +1,22 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) scroll. Pass nextCursor back as the cursor parameter to
+ * continue; it is null on the last page. totalElements is only filled in when requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalCursorPage {
+    private List<HospitalResponseDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    private Long totalElements;
+}
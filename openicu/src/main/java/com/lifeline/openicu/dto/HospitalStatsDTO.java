@@ -13,4 +13,7 @@ public class HospitalStatsDTO {
     private long totalHospitals;
     private Map<String, Long> hospitalsByState;
     private Map<String, Long> hospitalsByCity;
+    private Map<String, Long> hospitalsByDistrict;
+    private Map<String, Long> hospitalsByCategory;
+    private Map<String, Long> hospitalsByCareType;
 }
@@ -0,0 +1,16 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalSuggestionDTO {
+    private Long id;
+    private String name;
+    private String district;
+    private String town;
+    private Integer totalNumBeds;
+}
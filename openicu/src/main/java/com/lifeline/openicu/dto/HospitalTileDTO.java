@@ -0,0 +1,22 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One z/x/y tile of the hospital map layer. At low zoom the features are clusters,
+ * at high zoom individual hospitals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalTileDTO {
+    private int zoom;
+    private int x;
+    private int y;
+    private boolean clustered;
+    private List<HospitalTileFeatureDTO> features;
+}
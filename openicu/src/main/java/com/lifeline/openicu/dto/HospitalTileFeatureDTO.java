@@ -0,0 +1,20 @@
+package com.lifeline.openicu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A cluster of hospitals at their centroid, or a single hospital (with id and name).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HospitalTileFeatureDTO {
+    private Long id;
+    private String name;
+    private int count;
+    private double latitude;
+    private double longitude;
+    private int availableIcuBeds;
+}
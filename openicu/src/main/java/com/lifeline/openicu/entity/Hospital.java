@@ -1,5 +1,6 @@
 package com.lifeline.openicu.entity;
 
+import com.lifeline.openicu.index.GeoCell;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -9,7 +10,16 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "hospitals")
+@Table(name = "hospitals", indexes = {
+        @Index(name = "idx_hospitals_geo_cell", columnList = "geo_cell"),
+        // Keyset pagination seeks on (sort field, id)
+        @Index(name = "idx_hospitals_name_id", columnList = "name, id"),
+        @Index(name = "idx_hospitals_state_id", columnList = "state, id"),
+        @Index(name = "idx_hospitals_district_id", columnList = "district, id"),
+        @Index(name = "idx_hospitals_total_num_beds_id", columnList = "total_num_beds, id"),
+        @Index(name = "idx_hospitals_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_hospitals_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +52,10 @@ public class Hospital {
     @Column(nullable = true)
     private Double longitude;
 
+    // Z-order cell of the coordinates, derived on save; prefilter for nearby search
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
     // Additional fields from CSV
     @Column(length = 255)
     private String location;
@@ -164,10 +178,12 @@ public class Hospital {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        geoCell = GeoCell.of(latitude, longitude);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        geoCell = GeoCell.of(latitude, longitude);
     }
 }
@@ -0,0 +1,46 @@
+package com.lifeline.openicu.index;
+
+import java.util.List;
+
+/**
+ * Latitude/longitude box enclosing a search circle, with the geo cell ranges covering it.
+ * Near a pole, or where the circle crosses the antimeridian, the box spans every longitude.
+ */
+public record GeoBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                     List<GeoCell.Range> cells) {
+
+    /**
+     * The box around a circle of the given radius.
+     */
+    public static GeoBox around(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / HospitalSpatialIndex.EARTH_RADIUS_KM;
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        double minLatitude = Math.max(-90.0, latitude - latitudeDelta);
+        double maxLatitude = Math.min(90.0, latitude + latitudeDelta);
+        double minLongitude = -180.0;
+        double maxLongitude = 180.0;
+        if (minLatitude > -90.0 && maxLatitude < 90.0) {
+            double sin = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+            if (sin < 1.0) {
+                double longitudeDelta = Math.toDegrees(Math.asin(sin));
+                if (longitude - longitudeDelta >= -180.0 && longitude + longitudeDelta <= 180.0) {
+                    minLongitude = longitude - longitudeDelta;
+                    maxLongitude = longitude + longitudeDelta;
+                }
+            }
+        }
+        return new GeoBox(minLatitude, maxLatitude, minLongitude, maxLongitude,
+                GeoCell.cover(minLatitude, maxLatitude, minLongitude, maxLongitude));
+    }
+
+    /**
+     * Lowest cell id in the box; with {@link #maxCell()} a single range enclosing all of {@link #cells()}.
+     */
+    public long minCell() {
+        return cells.get(0).from();
+    }
+
+    public long maxCell() {
+        return cells.get(cells.size() - 1).to();
+    }
+}
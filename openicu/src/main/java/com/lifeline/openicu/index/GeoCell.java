@@ -0,0 +1,111 @@
+package com.lifeline.openicu.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Z-order (Morton) cell ids for hospital coordinates, the numeric equivalent of a geohash.
+ * Latitude and longitude are each quantised to 26 bits and their bits interleaved, so a
+ * cell at any coarser level is a prefix of the id and covers one contiguous id range.
+ * Persisted on each hospital and indexed, a radius search becomes a handful of B-tree
+ * range scans on plain SQL, with no spatial extension.
+ */
+public final class GeoCell {
+
+    /**
+     * Bits per coordinate; the finest cell is about 0.6 m across.
+     */
+    public static final int LEVELS = 26;
+
+    // Cells used to cover a search box; the finest level that stays within this is chosen
+    private static final int MAX_COVERING_CELLS = 16;
+
+    private GeoCell() {
+    }
+
+    /**
+     * Cell id of a point at the finest level.
+     */
+    public static long encode(double latitude, double longitude) {
+        return interleave(quantise(longitude, -180.0, 360.0), quantise(latitude, -90.0, 180.0));
+    }
+
+    /**
+     * Cell id of a hospital's coordinates, or null if it has none.
+     */
+    public static Long of(Double latitude, Double longitude) {
+        if (latitude == null || longitude == null || latitude.isNaN() || longitude.isNaN()) {
+            return null;
+        }
+        return encode(latitude, longitude);
+    }
+
+    /**
+     * Id ranges of the cells covering a latitude/longitude box, in ascending order.
+     * Every point inside the box has an id within one of the ranges; the ranges may also
+     * contain points outside it, so results still need an exact distance check.
+     */
+    public static List<Range> cover(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        int minRow = quantise(minLatitude, -90.0, 180.0);
+        int maxRow = quantise(maxLatitude, -90.0, 180.0);
+        int minColumn = quantise(minLongitude, -180.0, 360.0);
+        int maxColumn = quantise(maxLongitude, -180.0, 360.0);
+
+        // Coarsen until the box spans few enough cells
+        int shift = 0;
+        while (shift < LEVELS
+                && ((long) ((maxRow >> shift) - (minRow >> shift) + 1))
+                        * ((maxColumn >> shift) - (minColumn >> shift) + 1) > MAX_COVERING_CELLS) {
+            shift++;
+        }
+
+        long[] cells = new long[((maxRow >> shift) - (minRow >> shift) + 1)
+                * ((maxColumn >> shift) - (minColumn >> shift) + 1)];
+        int count = 0;
+        for (int row = minRow >> shift; row <= maxRow >> shift; row++) {
+            for (int column = minColumn >> shift; column <= maxColumn >> shift; column++) {
+                cells[count++] = interleave(column, row);
+            }
+        }
+        Arrays.sort(cells);
+
+        // Adjacent cells in Z-order share one range
+        List<Range> ranges = new ArrayList<>();
+        int cellBits = 2 * shift;
+        int start = 0;
+        for (int i = 1; i <= cells.length; i++) {
+            if (i == cells.length || cells[i] != cells[i - 1] + 1) {
+                ranges.add(new Range(cells[start] << cellBits, ((cells[i - 1] + 1) << cellBits) - 1));
+                start = i;
+            }
+        }
+        return ranges;
+    }
+
+    private static int quantise(double value, double min, double span) {
+        long cell = (long) Math.floor((value - min) / span * (1L << LEVELS));
+        return (int) Math.max(0, Math.min((1L << LEVELS) - 1, cell));
+    }
+
+    // Longitude takes the higher bit of each pair, as in a geohash
+    private static long interleave(int column, int row) {
+        return (spread(column) << 1) | spread(row);
+    }
+
+    private static long spread(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+
+    /**
+     * Inclusive range of cell ids.
+     */
+    public record Range(long from, long to) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process inverted index for keyword search over hospital name, location, state,
+ * district and address.
+ * Every three-character substring (trigram) of those fields maps to the hospitals
+ * containing it, so a keyword of three or more characters only has to check the
+ * hospitals in its rarest trigram's posting list instead of scanning the table.
+ * Candidates are verified against the indexed text, so results match the
+ * case-insensitive substring search exactly.
+ * Rebuilt at startup and kept current from hospital change events.
+ */
+@Component
+public class HospitalKeywordIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalKeywordIndex.class);
+
+    private static final int GRAM = 3;
+
+    // Lower-cased searchable fields per hospital
+    private final Map<Long, String[]> documents = new ConcurrentHashMap<>();
+
+    // Hospital ids per trigram, with the trigram packed into a long
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Build the index from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        for (Hospital hospital : hospitals) {
+            upsert(hospital);
+        }
+        logger.info("Hospital keyword index loaded: {} hospitals, {} trigrams", documents.size(), postings.size());
+    }
+
+    /**
+     * Keep the index current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    /**
+     * Insert or re-index a hospital.
+     *
+     * @param hospital the hospital as persisted
+     */
+    public synchronized void upsert(Hospital hospital) {
+        String[] fields = {
+                lower(hospital.getName()),
+                lower(hospital.getLocation()),
+                lower(hospital.getState()),
+                lower(hospital.getDistrict()),
+                lower(hospital.getAddress())
+        };
+        Set<Long> grams = trigrams(fields);
+
+        String[] previous = documents.put(hospital.getId(), fields);
+        if (previous != null) {
+            for (Long gram : trigrams(previous)) {
+                if (!grams.contains(gram)) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids != null) {
+                        ids.remove(hospital.getId());
+                    }
+                }
+            }
+        }
+        for (Long gram : grams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(hospital.getId());
+        }
+    }
+
+    /**
+     * Hospitals whose name, location, state, district or address contains the keyword,
+     * ignoring case.
+     *
+     * @param keyword the keyword, as typed
+     * @return ids of the matching hospitals, empty if none
+     */
+    public Set<Long> search(String keyword) {
+        String term = keyword.toLowerCase(Locale.ROOT);
+        Set<Long> result = new HashSet<>();
+
+        // Keywords too short to form a trigram are checked against every hospital
+        Iterable<Long> candidates = documents.keySet();
+        if (term.length() >= GRAM) {
+            Set<Long> smallest = null;
+            for (int i = 0; i + GRAM <= term.length(); i++) {
+                Set<Long> ids = postings.get(pack(term, i));
+                if (ids == null || ids.isEmpty()) {
+                    return result;
+                }
+                if (smallest == null || ids.size() < smallest.size()) {
+                    smallest = ids;
+                }
+            }
+            candidates = smallest;
+        }
+
+        for (Long id : candidates) {
+            String[] fields = documents.get(id);
+            if (fields != null && contains(fields, term)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static boolean contains(String[] fields, String term) {
+        for (String field : fields) {
+            if (field.contains(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Trigrams are taken per field so none spans two fields
+    private static Set<Long> trigrams(String[] fields) {
+        Set<Long> grams = new HashSet<>();
+        for (String field : fields) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                grams.add(pack(field, i));
+            }
+        }
+        return grams;
+    }
+
+    private static long pack(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    private static String lower(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
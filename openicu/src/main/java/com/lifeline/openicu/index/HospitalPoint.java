@@ -0,0 +1,12 @@
+package com.lifeline.openicu.index;
+
+/**
+ * Lightweight, immutable view of a hospital's location held by the spatial index.
+ * Latitude and longitude are NaN for hospitals without coordinates.
+ */
+public record HospitalPoint(Long id, String name, double latitude, double longitude) {
+
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+}
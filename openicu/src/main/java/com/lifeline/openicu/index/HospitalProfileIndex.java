@@ -0,0 +1,81 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory hospital capabilities used when scoring routing candidates: specialties, as
+ * the same normalised tags that {@link HospitalTagIndex} filters on, and whether
+ * emergency services are offered.
+ * Rebuilt at startup and kept current from hospital change events.
+ */
+@Component
+public class HospitalProfileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalProfileIndex.class);
+
+    private final Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Build the index from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        for (Hospital hospital : hospitals) {
+            upsert(hospital);
+        }
+        logger.info("Hospital profile index loaded: {} hospitals", profiles.size());
+    }
+
+    /**
+     * Keep the index current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    public void upsert(Hospital hospital) {
+        Set<String> specialties = Set.copyOf(HospitalTagIndex.tags(hospital.getSpecialties()));
+        profiles.put(hospital.getId(), new Profile(specialties, offersEmergencyServices(hospital.getEmergencyServices())));
+    }
+
+    /**
+     * Whether the hospital lists exactly the given specialty.
+     *
+     * @param specialty a tag normalised with {@link HospitalTagIndex#tag(String)}
+     */
+    public boolean hasSpecialty(Long hospitalId, String specialty) {
+        Profile profile = profiles.get(hospitalId);
+        return profile != null && profile.specialties().contains(specialty);
+    }
+
+    public boolean hasEmergencyServices(Long hospitalId) {
+        Profile profile = profiles.get(hospitalId);
+        return profile != null && profile.emergencyServices();
+    }
+
+    // The imported registry uses free text here; blanks and explicit negatives mean no service
+    private static boolean offersEmergencyServices(String emergencyServices) {
+        if (emergencyServices == null) {
+            return false;
+        }
+        String value = emergencyServices.trim().toLowerCase(Locale.ROOT);
+        return !value.isEmpty() && !value.equals("no") && !value.equals("none")
+                && !value.equals("n/a") && !value.equals("na") && !value.equals("0");
+    }
+
+    private record Profile(Set<String> specialties, boolean emergencyServices) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import com.lifeline.openicu.repository.HospitalRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory lookup from hospital id to its state and district, used to route realtime
+ * events to region-partitioned topics without a query per event.
+ * Loaded at startup, kept current from hospital change events, and filled from the
+ * database for hospitals it has not seen (e.g. created by another instance).
+ */
+@Component
+public class HospitalRegionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalRegionIndex.class);
+
+    private static final Region UNKNOWN = new Region(null, null);
+
+    private final HospitalRepository hospitalRepository;
+
+    private final Map<Long, Region> regions = new ConcurrentHashMap<>();
+
+    public HospitalRegionIndex(HospitalRepository hospitalRepository) {
+        this.hospitalRepository = hospitalRepository;
+    }
+
+    /**
+     * Load the region of every hospital in the database.
+     */
+    @PostConstruct
+    public void load() {
+        for (Object[] row : hospitalRepository.findRegions()) {
+            regions.put((Long) row[0], new Region((String) row[1], (String) row[2]));
+        }
+        logger.info("Hospital region index loaded: {} hospitals", regions.size());
+    }
+
+    /**
+     * Keep regions current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        regions.put(event.hospital().getId(), new Region(event.hospital().getState(), event.hospital().getDistrict()));
+    }
+
+    /**
+     * Region of a hospital; a region with null state and district if the hospital does not exist.
+     */
+    public Region region(Long hospitalId) {
+        if (hospitalId == null) {
+            return UNKNOWN;
+        }
+        Region region = regions.get(hospitalId);
+        if (region != null) {
+            return region;
+        }
+        return hospitalRepository.findById(hospitalId)
+                .map(hospital -> {
+                    Region loaded = new Region(hospital.getState(), hospital.getDistrict());
+                    regions.put(hospitalId, loaded);
+                    return loaded;
+                })
+                .orElse(UNKNOWN);
+    }
+
+    /**
+     * A hospital's state and district.
+     */
+    public record Region(String state, String district) {
+
+        /**
+         * Topic path segment for the region, e.g. "tamil-nadu/chennai". Names are lower-cased
+         * with runs of other characters turned into hyphens; a missing name is "unknown".
+         */
+        public String path() {
+            return slug(state) + "/" + slug(district);
+        }
+
+        private static String slug(String name) {
+            if (name == null) {
+                return "unknown";
+            }
+            String slug = name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+            return slug.isEmpty() ? "unknown" : slug;
+        }
+    }
+}
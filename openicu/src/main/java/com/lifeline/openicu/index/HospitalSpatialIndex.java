@@ -0,0 +1,302 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * In-process spatial index over hospital coordinates.
+ * Hospitals are bucketed into a uniform latitude/longitude grid; nearest-neighbour
+ * and radius queries walk outward ring by ring from the query cell and stop as
+ * soon as no unvisited cell can hold a closer hospital, so only a handful of
+ * candidates are measured instead of the whole registry.
+ * Rebuilt at startup and kept current from hospital change events.
+ */
+@Component
+public class HospitalSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalSpatialIndex.class);
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    // Roughly 11 km per cell at the equator
+    private static final double CELL_DEGREES = 0.1;
+    private static final int ROWS = (int) Math.round(180.0 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360.0 / CELL_DEGREES);
+
+    // Beyond this ring (several hundred km) walking empty cells costs more than a full scan
+    private static final int MAX_RING = 64;
+
+    private final Map<Long, HospitalPoint> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    /**
+     * Build the index from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        for (Hospital hospital : hospitals) {
+            upsert(hospital);
+        }
+        logger.info("Hospital spatial index loaded: {} hospitals in {} cells", points.size(), cells.size());
+    }
+
+    /**
+     * Keep the index current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    /**
+     * Insert or move a hospital in the index.
+     *
+     * @param hospital the hospital as persisted
+     */
+    public void upsert(Hospital hospital) {
+        HospitalPoint point = new HospitalPoint(
+                hospital.getId(),
+                hospital.getName(),
+                hospital.getLatitude() != null ? hospital.getLatitude() : Double.NaN,
+                hospital.getLongitude() != null ? hospital.getLongitude() : Double.NaN);
+
+        HospitalPoint previous = points.put(point.id(), point);
+        if (previous != null && previous.hasCoordinates()) {
+            Set<Long> cell = cells.get(cellKey(previous.latitude(), previous.longitude()));
+            if (cell != null) {
+                cell.remove(previous.id());
+            }
+        }
+        if (point.hasCoordinates()) {
+            cells.computeIfAbsent(cellKey(point.latitude(), point.longitude()), key -> ConcurrentHashMap.newKeySet())
+                    .add(point.id());
+        }
+    }
+
+    /**
+     * Look up the indexed point for a hospital.
+     *
+     * @return the point, or null if the hospital is not indexed
+     */
+    public HospitalPoint get(Long hospitalId) {
+        return points.get(hospitalId);
+    }
+
+    /**
+     * Hospitals that have no coordinates and therefore never appear in spatial queries.
+     */
+    public List<HospitalPoint> unlocated(LongPredicate filter) {
+        List<HospitalPoint> result = new ArrayList<>();
+        for (HospitalPoint point : points.values()) {
+            if (!point.hasCoordinates() && filter.test(point.id())) {
+                result.add(point);
+            }
+        }
+        result.sort(Comparator.comparing(HospitalPoint::id));
+        return result;
+    }
+
+    /**
+     * Find the k hospitals nearest to a location that satisfy a filter.
+     *
+     * @param latitude query latitude
+     * @param longitude query longitude
+     * @param k maximum number of neighbours to return
+     * @param filter hospital id filter, evaluated before any distance is computed
+     * @return neighbours ordered by ascending distance
+     */
+    public List<Neighbour> nearest(double latitude, double longitude, int k, LongPredicate filter) {
+        if (k <= 0) {
+            return List.of();
+        }
+
+        // Max-heap on distance holding the best k seen so far
+        PriorityQueue<Neighbour> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(Neighbour::distanceKm).reversed());
+        int row = row(latitude);
+        int column = column(longitude);
+
+        for (int ring = 0; ring <= MAX_RING; ring++) {
+            visitRing(row, column, ring, hospitalId -> {
+                if (!filter.test(hospitalId)) {
+                    return;
+                }
+                HospitalPoint point = points.get(hospitalId);
+                if (point == null) {
+                    return;
+                }
+                double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                if (best.size() < k) {
+                    best.add(new Neighbour(point, distance));
+                } else if (distance < best.peek().distanceKm()) {
+                    best.poll();
+                    best.add(new Neighbour(point, distance));
+                }
+            });
+
+            if (best.size() == k && best.peek().distanceKm() <= ringClearanceKm(latitude, ring)) {
+                return sorted(best);
+            }
+        }
+
+        return nearestByScan(latitude, longitude, k, filter);
+    }
+
+    /**
+     * Find all hospitals within a radius of a location that satisfy a filter.
+     *
+     * @param latitude query latitude
+     * @param longitude query longitude
+     * @param radiusKm search radius in kilometers
+     * @param filter hospital id filter, evaluated before any distance is computed
+     * @return neighbours ordered by ascending distance
+     */
+    public List<Neighbour> withinRadius(double latitude, double longitude, double radiusKm, LongPredicate filter) {
+        List<Neighbour> result = new ArrayList<>();
+        int row = row(latitude);
+        int column = column(longitude);
+
+        int ring = 0;
+        for (; ring <= MAX_RING; ring++) {
+            visitRing(row, column, ring, hospitalId -> {
+                if (!filter.test(hospitalId)) {
+                    return;
+                }
+                HospitalPoint point = points.get(hospitalId);
+                if (point == null) {
+                    return;
+                }
+                double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                if (distance <= radiusKm) {
+                    result.add(new Neighbour(point, distance));
+                }
+            });
+
+            if (ringClearanceKm(latitude, ring) >= radiusKm) {
+                break;
+            }
+        }
+
+        if (ring > MAX_RING) {
+            result.clear();
+            for (HospitalPoint point : points.values()) {
+                if (point.hasCoordinates() && filter.test(point.id())) {
+                    double distance = distanceKm(latitude, longitude, point.latitude(), point.longitude());
+                    if (distance <= radiusKm) {
+                        result.add(new Neighbour(point, distance));
+                    }
+                }
+            }
+        }
+
+        result.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+        return result;
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * Calculate distance between two coordinates using the Haversine formula.
+     * Returns distance in kilometers.
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double lat1Rad = Math.toRadians(lat1);
+        double lat2Rad = Math.toRadians(lat2);
+        double deltaLatRad = Math.toRadians(lat2 - lat1);
+        double deltaLonRad = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(deltaLatRad / 2) * Math.sin(deltaLatRad / 2)
+                + Math.cos(lat1Rad) * Math.cos(lat2Rad)
+                        * Math.sin(deltaLonRad / 2) * Math.sin(deltaLonRad / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+
+    /**
+     * Lower bound on the distance from the query point to any cell outside the given ring.
+     * Such cells differ from the query by more than ring * CELL_DEGREES in latitude or in
+     * longitude; the longitude case is the weaker one, bounded by the distance from the
+     * query point to the nearest meridian that far away.
+     */
+    private static double ringClearanceKm(double latitude, int ring) {
+        double deltaLonRad = Math.min(Math.toRadians(ring * CELL_DEGREES), Math.PI / 2);
+        return EARTH_RADIUS_KM * Math.asin(Math.cos(Math.toRadians(latitude)) * Math.sin(deltaLonRad));
+    }
+
+    private void visitRing(int row, int column, int ring, LongConsumer visitor) {
+        for (int r = row - ring; r <= row + ring; r++) {
+            if (r < 0 || r >= ROWS) {
+                continue;
+            }
+            boolean edgeRow = r == row - ring || r == row + ring;
+            int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+            for (int c = column - ring; c <= column + ring; c += step) {
+                Set<Long> cell = cells.get(cellKey(r, Math.floorMod(c, COLUMNS)));
+                if (cell != null) {
+                    for (Long hospitalId : cell) {
+                        visitor.accept(hospitalId);
+                    }
+                }
+            }
+        }
+    }
+
+    private List<Neighbour> nearestByScan(double latitude, double longitude, int k, LongPredicate filter) {
+        List<Neighbour> all = new ArrayList<>();
+        for (HospitalPoint point : points.values()) {
+            if (point.hasCoordinates() && filter.test(point.id())) {
+                all.add(new Neighbour(point, distanceKm(latitude, longitude, point.latitude(), point.longitude())));
+            }
+        }
+        all.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+        return all.size() > k ? new ArrayList<>(all.subList(0, k)) : all;
+    }
+
+    private static List<Neighbour> sorted(Collection<Neighbour> neighbours) {
+        List<Neighbour> result = new ArrayList<>(neighbours);
+        result.sort(Comparator.comparingDouble(Neighbour::distanceKm));
+        return result;
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return cellKey(row(latitude), column(longitude));
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    /**
+     * A hospital returned by a spatial query together with its distance from the query point.
+     */
+    public record Neighbour(HospitalPoint point, double distanceKm) {
+    }
+}
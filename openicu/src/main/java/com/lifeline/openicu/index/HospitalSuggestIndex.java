@@ -0,0 +1,325 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over hospital names, districts and towns for typeahead suggestions.
+ * Every word of those fields starts a key, so "gen" finds "City General Hospital".
+ * Each trie node keeps the ids of the best-ranked hospitals below it, so a lookup is a
+ * walk down the typed prefix followed by reading that node's list, independent of how
+ * many hospitals match. Hospitals are ranked by bed count, largest first.
+ * Rebuilt at startup and kept current from hospital change events.
+ */
+@Component
+public class HospitalSuggestIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalSuggestIndex.class);
+
+    /**
+     * Most suggestions a single lookup can return; also the length of each node's ranked list.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Keys are cut at this depth; longer prefixes filter the hospitals stored at the cut
+    private static final int MAX_KEY_LENGTH = 16;
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final Map<Long, Suggestion> suggestions = new HashMap<>();
+    private final Map<Long, List<String>> keysByHospital = new HashMap<>();
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Comparator<Long> byRank = Comparator
+            .comparingInt((Long id) -> -suggestions.get(id).totalNumBeds())
+            .thenComparing(id -> suggestions.get(id).name())
+            .thenComparing(Comparator.naturalOrder());
+
+    /**
+     * Build the trie from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        lock.writeLock().lock();
+        try {
+            for (Hospital hospital : hospitals) {
+                insert(hospital);
+            }
+            // Rank every node once rather than once per inserted key
+            rankSubtree(root);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hospital suggest index loaded: {} hospitals", suggestions.size());
+    }
+
+    /**
+     * Keep the trie current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    /**
+     * Insert or re-index a hospital.
+     *
+     * @param hospital the hospital as persisted
+     */
+    public void upsert(Hospital hospital) {
+        lock.writeLock().lock();
+        try {
+            List<String> previousKeys = keysByHospital.get(hospital.getId());
+            if (previousKeys != null) {
+                for (String key : previousKeys) {
+                    Node node = find(key);
+                    if (node != null && node.terminals != null) {
+                        node.terminals.remove(hospital.getId());
+                    }
+                }
+            }
+            List<String> keys = insert(hospital);
+
+            // Only the nodes on the old and new key paths can change rank
+            if (previousKeys != null) {
+                for (String key : previousKeys) {
+                    rankPath(key);
+                }
+            }
+            for (String key : keys) {
+                rankPath(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best-ranked hospitals with a name, district or town word starting with the prefix.
+     *
+     * @param prefix the text typed so far; case and punctuation are ignored
+     * @param limit maximum number of suggestions, at most {@link #MAX_SUGGESTIONS}
+     * @return suggestions, best first; empty if the prefix is blank or nothing matches
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String query = normalise(prefix);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        int count = Math.min(limit, MAX_SUGGESTIONS);
+
+        lock.readLock().lock();
+        try {
+            if (query.length() <= MAX_KEY_LENGTH) {
+                Node node = find(query);
+                if (node == null) {
+                    return List.of();
+                }
+                List<Suggestion> result = new ArrayList<>(Math.min(count, node.top.length));
+                for (int i = 0; i < node.top.length && result.size() < count; i++) {
+                    result.add(suggestions.get(node.top[i]));
+                }
+                return result;
+            }
+
+            // Past the cut every matching hospital is a terminal of the cut node
+            Node node = find(query.substring(0, MAX_KEY_LENGTH));
+            if (node == null || node.terminals == null) {
+                return List.of();
+            }
+            List<Long> matches = new ArrayList<>();
+            for (Long id : node.terminals) {
+                for (String word : wordStarts(suggestions.get(id))) {
+                    if (word.startsWith(query)) {
+                        matches.add(id);
+                        break;
+                    }
+                }
+            }
+            matches.sort(byRank);
+            List<Suggestion> result = new ArrayList<>(Math.min(count, matches.size()));
+            for (int i = 0; i < matches.size() && i < count; i++) {
+                result.add(suggestions.get(matches.get(i)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<String> insert(Hospital hospital) {
+        Suggestion suggestion = new Suggestion(
+                hospital.getId(),
+                hospital.getName(),
+                hospital.getDistrict(),
+                hospital.getTown(),
+                hospital.getTotalNumBeds() != null ? hospital.getTotalNumBeds() : 0);
+        suggestions.put(suggestion.id(), suggestion);
+
+        Set<String> keys = new HashSet<>();
+        for (String word : wordStarts(suggestion)) {
+            keys.add(word.length() > MAX_KEY_LENGTH ? word.substring(0, MAX_KEY_LENGTH) : word);
+        }
+        for (String key : keys) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.childOrCreate(key.charAt(i));
+            }
+            if (node.terminals == null) {
+                node.terminals = new HashSet<>();
+            }
+            node.terminals.add(suggestion.id());
+        }
+
+        List<String> keyList = new ArrayList<>(keys);
+        keysByHospital.put(suggestion.id(), keyList);
+        return keyList;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private void rankPath(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        for (int i = path.length - 1; i >= 0; i--) {
+            rank(path[i]);
+        }
+    }
+
+    private void rankSubtree(Node node) {
+        for (Node child : node.children) {
+            rankSubtree(child);
+        }
+        rank(node);
+    }
+
+    // A node's best hospitals are among its own terminals and its children's best
+    private void rank(Node node) {
+        Set<Long> candidates = new HashSet<>();
+        if (node.terminals != null) {
+            candidates.addAll(node.terminals);
+        }
+        for (Node child : node.children) {
+            for (long id : child.top) {
+                candidates.add(id);
+            }
+        }
+        if (candidates.isEmpty()) {
+            node.top = NO_IDS;
+            return;
+        }
+
+        List<Long> ranked = new ArrayList<>(candidates);
+        ranked.sort(byRank);
+        long[] top = new long[Math.min(ranked.size(), MAX_SUGGESTIONS)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = ranked.get(i);
+        }
+        node.top = top;
+    }
+
+    // Normalised text of each field from every word onwards, e.g. "city general", "general"
+    private static List<String> wordStarts(Suggestion suggestion) {
+        List<String> words = new ArrayList<>();
+        for (String field : new String[] {suggestion.name(), suggestion.district(), suggestion.town()}) {
+            String text = normalise(field);
+            for (int i = 0; i < text.length(); i++) {
+                if (i == 0 || text.charAt(i - 1) == ' ') {
+                    words.add(text.substring(i));
+                }
+            }
+        }
+        return words;
+    }
+
+    // Lower case, with every run of punctuation or whitespace collapsed to one space
+    private static String normalise(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalised = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && normalised.length() > 0) {
+                    normalised.append(' ');
+                }
+                normalised.append(Character.toLowerCase(c));
+                space = false;
+            } else {
+                space = true;
+            }
+        }
+        return normalised.toString();
+    }
+
+    /**
+     * A suggestable hospital.
+     */
+    public record Suggestion(Long id, String name, String district, String town, int totalNumBeds) {
+    }
+
+    /**
+     * Trie node. Children are kept in parallel arrays sorted by label to stay compact.
+     */
+    private static final class Node {
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Set<Long> terminals;
+        private long[] top = NO_IDS;
+
+        private Node child(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            return i >= 0 ? children[i] : null;
+        }
+
+        private Node childOrCreate(char label) {
+            int i = Arrays.binarySearch(labels, label);
+            if (i >= 0) {
+                return children[i];
+            }
+            int insertAt = -i - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory tag dictionaries for the free-text specialty, facility and emergency service
+ * lists of each hospital.
+ * Each list is split into normalised tags (comma or semicolon separated, case and
+ * whitespace ignored). Every tag maps to a bitset over hospital ordinals, so a filter on
+ * several tags is a bitwise AND of their bitsets. Tags match exactly, so "ENT" does not
+ * match "Trauma Centre".
+ * Rebuilt at startup and kept current from hospital change events.
+ */
+@Component
+public class HospitalTagIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalTagIndex.class);
+
+    // Dense ordinal per hospital, used as the bit position in every tag bitset
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<Long> hospitalIds = new ArrayList<>();
+
+    private final TagColumn specialties = new TagColumn();
+    private final TagColumn facilities = new TagColumn();
+    private final TagColumn emergencyServices = new TagColumn();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Build the dictionaries from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        for (Hospital hospital : hospitals) {
+            upsert(hospital);
+        }
+        logger.info("Hospital tag index loaded: {} hospitals, {} specialties, {} facilities, {} emergency services",
+                hospitalIds.size(), specialties.size(), facilities.size(), emergencyServices.size());
+    }
+
+    /**
+     * Keep the dictionaries current when a hospital is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    /**
+     * Insert or re-tag a hospital.
+     *
+     * @param hospital the hospital as persisted
+     */
+    public void upsert(Hospital hospital) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(hospital.getId());
+            if (ordinal == null) {
+                ordinal = hospitalIds.size();
+                ordinals.put(hospital.getId(), ordinal);
+                hospitalIds.add(hospital.getId());
+            }
+            specialties.set(ordinal, tags(hospital.getSpecialties()));
+            facilities.set(ordinal, tags(hospital.getFacilities()));
+            emergencyServices.set(ordinal, tags(hospital.getEmergencyServices()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Hospitals carrying every requested tag. Each argument is a comma-separated tag list,
+     * or null/blank to leave that field unfiltered.
+     *
+     * @return ids of the matching hospitals, or null if no tag filter was given
+     */
+    public Set<Long> matching(String specialty, String facility, String emergencyService) {
+        List<String> specialtyTags = tags(specialty);
+        List<String> facilityTags = tags(facility);
+        List<String> emergencyServiceTags = tags(emergencyService);
+        if (specialtyTags.isEmpty() && facilityTags.isEmpty() && emergencyServiceTags.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet(hospitalIds.size());
+            matches.set(0, hospitalIds.size());
+            specialties.retainAll(specialtyTags, matches);
+            facilities.retainAll(facilityTags, matches);
+            emergencyServices.retainAll(emergencyServiceTags, matches);
+
+            Set<Long> result = new HashSet<>(Math.max(16, matches.cardinality() * 2));
+            for (int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                result.add(hospitalIds.get(i));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Split a free-text list into normalised tags: lower case, surrounding and repeated
+     * whitespace removed, duplicates dropped.
+     */
+    public static List<String> tags(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        Set<String> tags = new LinkedHashSet<>();
+        for (String part : text.split("[,;]")) {
+            String tag = tag(part);
+            if (!tag.isEmpty()) {
+                tags.add(tag);
+            }
+        }
+        return new ArrayList<>(tags);
+    }
+
+    /**
+     * Normalise a single tag as {@link #tags(String)} does; empty if it is blank.
+     */
+    public static String tag(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Tag dictionary for one free-text field: hospitals per tag and tags per hospital.
+     */
+    private static final class TagColumn {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<BitSet> hospitalsByTag = new ArrayList<>();
+        private final Map<Integer, BitSet> tagsByHospital = new HashMap<>();
+
+        private void set(int ordinal, List<String> tags) {
+            BitSet previous = tagsByHospital.remove(ordinal);
+            if (previous != null) {
+                for (int tag = previous.nextSetBit(0); tag >= 0; tag = previous.nextSetBit(tag + 1)) {
+                    hospitalsByTag.get(tag).clear(ordinal);
+                }
+            }
+            if (tags.isEmpty()) {
+                return;
+            }
+
+            BitSet tagBits = new BitSet();
+            for (String tag : tags) {
+                int id = dictionary.computeIfAbsent(tag, key -> {
+                    hospitalsByTag.add(new BitSet());
+                    return hospitalsByTag.size() - 1;
+                });
+                tagBits.set(id);
+                hospitalsByTag.get(id).set(ordinal);
+            }
+            tagsByHospital.put(ordinal, tagBits);
+        }
+
+        // Narrow the matches to hospitals carrying all the tags; an unknown tag matches nothing
+        private void retainAll(List<String> tags, BitSet matches) {
+            for (String tag : tags) {
+                Integer id = dictionary.get(tag);
+                if (id == null) {
+                    matches.clear();
+                    return;
+                }
+                matches.and(hospitalsByTag.get(id));
+            }
+        }
+
+        private int size() {
+            return dictionary.size();
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.index.BedAvailabilityChangedEvent;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hospital map layer served as Web Mercator tiles (z/x/y, as used by slippy maps).
+ * Hospitals are held in a hierarchical grid: at every level each cell keeps the number of
+ * hospitals in it, the sum of their coordinates and of their free ICU beds, and the
+ * deepest level also lists the hospitals. A tile up to {@link #MAX_CLUSTER_ZOOM} is an 8x8
+ * grid of clusters read straight from the level below it; deeper tiles list individual
+ * hospitals. Built tiles are cached until a hospital or bed in them changes.
+ * Rebuilt at startup and kept current from hospital change and bed availability events.
+ */
+@Component
+public class HospitalTileIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalTileIndex.class);
+
+    public static final int MAX_ZOOM = 22;
+
+    /**
+     * Deepest zoom served as clusters; tiles beyond it list individual hospitals.
+     */
+    public static final int MAX_CLUSTER_ZOOM = 11;
+
+    // Each tile is split into 2^3 x 2^3 cluster cells
+    private static final int CLUSTER_BITS = 3;
+
+    // The deepest grid level, whose cells also list their hospitals
+    private static final int LEAF_LEVEL = MAX_CLUSTER_ZOOM + CLUSTER_BITS;
+
+    private static final int MAX_CACHED_TILES = 4096;
+
+    // Web Mercator is undefined at the poles; coordinates are clamped to its square
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final Map<Long, Marker> markers = new HashMap<>();
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(LEAF_LEVEL + 1);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Built tiles, least recently used evicted first; filled under the read lock and
+    // invalidated under the write lock, so a tile built before a change is never kept
+    private final Map<Long, Tile> tiles = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Tile> eldest) {
+            return size() > MAX_CACHED_TILES;
+        }
+    });
+
+    public HospitalTileIndex(BedAvailabilityIndex bedAvailabilityIndex) {
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        for (int level = 0; level <= LEAF_LEVEL; level++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Build the grid from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        lock.writeLock().lock();
+        try {
+            for (Hospital hospital : hospitals) {
+                Marker marker = Marker.of(hospital, bedAvailabilityIndex.freeBedCount(hospital.getId(), BedType.ICU));
+                if (marker != null) {
+                    add(marker);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hospital tile index loaded: {} hospitals with coordinates", markers.size());
+    }
+
+    /**
+     * Move, rename or add a hospital when it is created or updated.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        upsert(event.hospital());
+    }
+
+    /**
+     * Keep the free ICU bed sums current.
+     */
+    @EventListener
+    public void onBedAvailabilityChanged(BedAvailabilityChangedEvent event) {
+        if (event.bedType() != BedType.ICU) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Marker marker = markers.get(event.hospitalId());
+            if (marker == null) {
+                return;
+            }
+            int icuBeds = bedAvailabilityIndex.freeBedCount(event.hospitalId(), BedType.ICU);
+            if (icuBeds != marker.icuBeds()) {
+                remove(marker);
+                add(marker.withIcuBeds(icuBeds));
+                invalidate(marker);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or re-index a hospital.
+     *
+     * @param hospital the hospital as persisted
+     */
+    public void upsert(Hospital hospital) {
+        lock.writeLock().lock();
+        try {
+            Marker previous = markers.get(hospital.getId());
+            if (previous != null) {
+                remove(previous);
+                invalidate(previous);
+            }
+            Marker marker = Marker.of(hospital, bedAvailabilityIndex.freeBedCount(hospital.getId(), BedType.ICU));
+            if (marker != null) {
+                add(marker);
+                invalidate(marker);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The tile at z/x/y: clusters up to {@link #MAX_CLUSTER_ZOOM}, hospitals beyond it.
+     * The caller validates that x and y lie within the zoom level.
+     */
+    public Tile tile(int zoom, int x, int y) {
+        long key = tileKey(zoom, x, y);
+        Tile tile = tiles.get(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        lock.readLock().lock();
+        try {
+            tile = zoom <= MAX_CLUSTER_ZOOM ? clusterTile(zoom, x, y) : hospitalTile(zoom, x, y);
+            tiles.put(key, tile);
+            return tile;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Tile clusterTile(int zoom, int x, int y) {
+        Map<Long, Cell> cells = levels.get(zoom + CLUSTER_BITS);
+        List<Feature> features = new ArrayList<>();
+        for (int row = 0; row < 1 << CLUSTER_BITS; row++) {
+            for (int column = 0; column < 1 << CLUSTER_BITS; column++) {
+                Cell cell = cells.get(cellKey((x << CLUSTER_BITS) + column, (y << CLUSTER_BITS) + row));
+                if (cell != null) {
+                    features.add(new Feature(null, null, cell.count,
+                            cell.sumLatitude / cell.count, cell.sumLongitude / cell.count, cell.icuBeds));
+                }
+            }
+        }
+        return new Tile(zoom, x, y, true, features);
+    }
+
+    private Tile hospitalTile(int zoom, int x, int y) {
+        Map<Long, Cell> leaves = levels.get(LEAF_LEVEL);
+        List<Feature> features = new ArrayList<>();
+        if (zoom <= LEAF_LEVEL) {
+            // The tile spans a block of leaf cells
+            int shift = LEAF_LEVEL - zoom;
+            for (int row = y << shift; row < (y + 1) << shift; row++) {
+                for (int column = x << shift; column < (x + 1) << shift; column++) {
+                    Cell cell = leaves.get(cellKey(column, row));
+                    if (cell != null) {
+                        for (Long id : cell.hospitalIds) {
+                            features.add(markers.get(id).feature());
+                        }
+                    }
+                }
+            }
+        } else {
+            // The tile lies within one leaf cell
+            int shift = zoom - LEAF_LEVEL;
+            Cell cell = leaves.get(cellKey(x >> shift, y >> shift));
+            if (cell != null) {
+                for (Long id : cell.hospitalIds) {
+                    Marker marker = markers.get(id);
+                    if (cellIndex(marker.x(), zoom) == x && cellIndex(marker.y(), zoom) == y) {
+                        features.add(marker.feature());
+                    }
+                }
+            }
+        }
+        features.sort(Comparator.comparing(Feature::id));
+        return new Tile(zoom, x, y, false, features);
+    }
+
+    private void add(Marker marker) {
+        markers.put(marker.id(), marker);
+        for (int level = 0; level <= LEAF_LEVEL; level++) {
+            Cell cell = levels.get(level).computeIfAbsent(cellKey(marker, level), key -> new Cell());
+            cell.count++;
+            cell.sumLatitude += marker.latitude();
+            cell.sumLongitude += marker.longitude();
+            cell.icuBeds += marker.icuBeds();
+            if (level == LEAF_LEVEL) {
+                if (cell.hospitalIds == null) {
+                    cell.hospitalIds = new HashSet<>();
+                }
+                cell.hospitalIds.add(marker.id());
+            }
+        }
+    }
+
+    private void remove(Marker marker) {
+        markers.remove(marker.id());
+        for (int level = 0; level <= LEAF_LEVEL; level++) {
+            long key = cellKey(marker, level);
+            Cell cell = levels.get(level).get(key);
+            if (cell == null) {
+                continue;
+            }
+            if (--cell.count == 0) {
+                levels.get(level).remove(key);
+                continue;
+            }
+            cell.sumLatitude -= marker.latitude();
+            cell.sumLongitude -= marker.longitude();
+            cell.icuBeds -= marker.icuBeds();
+            if (level == LEAF_LEVEL) {
+                cell.hospitalIds.remove(marker.id());
+            }
+        }
+    }
+
+    // Drop the cached tile containing the hospital at every zoom
+    private void invalidate(Marker marker) {
+        for (int zoom = 0; zoom <= MAX_ZOOM; zoom++) {
+            tiles.remove(tileKey(zoom, cellIndex(marker.x(), zoom), cellIndex(marker.y(), zoom)));
+        }
+    }
+
+    private static long cellKey(Marker marker, int level) {
+        return cellKey(cellIndex(marker.x(), level), cellIndex(marker.y(), level));
+    }
+
+    private static long cellKey(int column, int row) {
+        return ((long) column << 32) | row;
+    }
+
+    private static long tileKey(int zoom, int x, int y) {
+        return ((long) zoom << 48) | ((long) x << 24) | y;
+    }
+
+    // Column or row of a Mercator coordinate in [0, 1] at a zoom level
+    private static int cellIndex(double coordinate, int zoom) {
+        int cells = 1 << zoom;
+        return Math.min(cells - 1, (int) Math.floor(coordinate * cells));
+    }
+
+    /**
+     * A map tile and its features.
+     *
+     * @param clustered true if the features are clusters, false if they are single hospitals
+     */
+    public record Tile(int zoom, int x, int y, boolean clustered, List<Feature> features) {
+    }
+
+    /**
+     * A cluster of hospitals, located at their centroid, or a single hospital, which has an id
+     * and name and a count of one.
+     */
+    public record Feature(Long id, String name, int count, double latitude, double longitude,
+                          int availableIcuBeds) {
+    }
+
+    /**
+     * A hospital's position, in degrees and as Web Mercator coordinates in [0, 1].
+     */
+    private record Marker(Long id, String name, double latitude, double longitude,
+                          double x, double y, int icuBeds) {
+
+        static Marker of(Hospital hospital, int icuBeds) {
+            if (hospital.getLatitude() == null || hospital.getLongitude() == null) {
+                return null;
+            }
+            double latitude = hospital.getLatitude();
+            double longitude = hospital.getLongitude();
+            double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+            double x = (longitude + 180.0) / 360.0;
+            double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+            return new Marker(hospital.getId(), hospital.getName(), latitude, longitude,
+                    Math.max(0.0, Math.min(1.0, x)), Math.max(0.0, Math.min(1.0, y)), icuBeds);
+        }
+
+        Marker withIcuBeds(int icuBeds) {
+            return new Marker(id, name, latitude, longitude, x, y, icuBeds);
+        }
+
+        Feature feature() {
+            return new Feature(id, name, 1, latitude, longitude, icuBeds);
+        }
+    }
+
+    /**
+     * Aggregate of the hospitals in one grid cell; only leaf cells list them.
+     */
+    private static final class Cell {
+        private int count;
+        private double sumLatitude;
+        private double sumLongitude;
+        private int icuBeds;
+        private Set<Long> hospitalIds;
+    }
+}
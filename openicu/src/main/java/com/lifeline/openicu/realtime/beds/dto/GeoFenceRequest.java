@@ -0,0 +1,26 @@
+package com.lifeline.openicu.realtime.beds.dto;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of a /app/beds/geofence request: the area a client wants bed events for.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GeoFenceRequest {
+    
+    private Double latitude;
+    private Double longitude;
+    private Double radiusKm;
+    
+    /**
+     * Bed types to receive events for; null or empty for all types
+     */
+    private List<BedType> bedTypes;
+}
@@ -0,0 +1,208 @@
+package com.lifeline.openicu.realtime.beds.geofence;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.index.HospitalPoint;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geo-fences registered by WebSocket sessions, one per session, indexed for matching
+ * bed events by location.
+ * Each fence is entered in every cell of a uniform latitude/longitude grid that its
+ * circle overlaps, so finding the fences around a hospital reads one cell and measures
+ * only the fences in it, however many sessions are connected.
+ * A session re-registering (e.g. an ambulance that has moved) replaces its fence; the
+ * fence is dropped when the session disconnects.
+ */
+@Component
+public class GeoFenceIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoFenceIndex.class);
+
+    /**
+     * Largest accepted fence radius; keeps the number of cells per fence bounded.
+     */
+    public static final double MAX_RADIUS_KM = 200.0;
+
+    // Roughly 55 km per cell at the equator, so a typical fence spans a few cells
+    private static final double CELL_DEGREES = 0.5;
+    private static final int ROWS = (int) Math.round(180.0 / CELL_DEGREES);
+    private static final int COLUMNS = (int) Math.round(360.0 / CELL_DEGREES);
+
+    private final HospitalSpatialIndex hospitalSpatialIndex;
+
+    private final Map<String, Fence> fences = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Fence>> cells = new ConcurrentHashMap<>();
+
+    public GeoFenceIndex(HospitalSpatialIndex hospitalSpatialIndex) {
+        this.hospitalSpatialIndex = hospitalSpatialIndex;
+    }
+
+    /**
+     * Register or move a session's fence.
+     *
+     * @param sessionId the WebSocket session
+     * @param bedTypes bed types to match; null or empty for all types
+     * @throws IllegalArgumentException if the centre or radius is out of range
+     */
+    public void register(String sessionId, Double latitude, Double longitude, Double radiusKm,
+                         Collection<BedType> bedTypes) {
+        if (latitude == null || latitude < -90.0 || latitude > 90.0
+                || longitude == null || longitude < -180.0 || longitude > 180.0) {
+            throw new IllegalArgumentException("Fence centre must be a valid latitude and longitude");
+        }
+        if (radiusKm == null || !(radiusKm > 0.0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Fence radius must be greater than 0 and at most " + MAX_RADIUS_KM + " km");
+        }
+        Set<BedType> types = bedTypes == null || bedTypes.isEmpty()
+                ? EnumSet.allOf(BedType.class) : EnumSet.copyOf(bedTypes);
+        Fence fence = new Fence(sessionId, latitude, longitude, radiusKm, types, cellKeys(latitude, longitude, radiusKm));
+
+        synchronized (this) {
+            remove(sessionId);
+            fences.put(sessionId, fence);
+            for (Long key : fence.cellKeys) {
+                cells.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(fence);
+            }
+        }
+        logger.debug("Registered geo-fence for session {}: {} km around {},{} in {} cells",
+                sessionId, radiusKm, latitude, longitude, fence.cellKeys.size());
+    }
+
+    /**
+     * Drop a session's fence, if it has one.
+     */
+    public synchronized void remove(String sessionId) {
+        Fence fence = fences.remove(sessionId);
+        if (fence == null) {
+            return;
+        }
+        for (Long key : fence.cellKeys) {
+            Set<Fence> cell = cells.get(key);
+            if (cell != null) {
+                cell.remove(fence);
+                if (cell.isEmpty()) {
+                    cells.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop the fence of a disconnected session.
+     */
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        remove(event.getSessionId());
+    }
+
+    /**
+     * Sessions whose fence contains the hospital and covers at least one of the bed types.
+     * Empty if the hospital is unknown or has no coordinates.
+     */
+    public List<String> sessionsFor(Long hospitalId, Set<BedType> bedTypes) {
+        List<String> sessions = new ArrayList<>();
+        HospitalPoint point = hospitalId != null ? hospitalSpatialIndex.get(hospitalId) : null;
+        if (point == null || !point.hasCoordinates()) {
+            return sessions;
+        }
+        Set<Fence> cell = cells.get(cellKey(row(point.latitude()), column(point.longitude())));
+        if (cell == null) {
+            return sessions;
+        }
+        for (Fence fence : cell) {
+            if (!Collections.disjoint(fence.bedTypes, bedTypes)
+                    && HospitalSpatialIndex.distanceKm(fence.latitude, fence.longitude,
+                            point.latitude(), point.longitude()) <= fence.radiusKm) {
+                sessions.add(fence.sessionId);
+            }
+        }
+        return sessions;
+    }
+
+    public int size() {
+        return fences.size();
+    }
+
+    /**
+     * Cells overlapped by the fence's circle. Its latitude extent is the radius as an arc;
+     * its longitude extent is widest at the circle's tangent points, and covers every
+     * column when the circle reaches a pole.
+     */
+    private static List<Long> cellKeys(double latitude, double longitude, double radiusKm) {
+        double angularRadius = radiusKm / HospitalSpatialIndex.EARTH_RADIUS_KM;
+        double deltaLat = Math.toDegrees(angularRadius);
+        double sinLonExtent = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+
+        int minColumn;
+        int maxColumn;
+        if (latitude + deltaLat >= 90.0 || latitude - deltaLat <= -90.0 || sinLonExtent >= 1.0) {
+            minColumn = 0;
+            maxColumn = COLUMNS - 1;
+        } else {
+            double deltaLon = Math.toDegrees(Math.asin(sinLonExtent));
+            minColumn = (int) Math.floor((longitude - deltaLon + 180.0) / CELL_DEGREES);
+            maxColumn = (int) Math.floor((longitude + deltaLon + 180.0) / CELL_DEGREES);
+            if (maxColumn - minColumn + 1 >= COLUMNS) {
+                minColumn = 0;
+                maxColumn = COLUMNS - 1;
+            }
+        }
+
+        List<Long> keys = new ArrayList<>();
+        for (int row = row(latitude - deltaLat); row <= row(latitude + deltaLat); row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                keys.add(cellKey(row, Math.floorMod(column, COLUMNS)));
+            }
+        }
+        return keys;
+    }
+
+    private static int row(double latitude) {
+        return Math.min(ROWS - 1, Math.max(0, (int) Math.floor((latitude + 90.0) / CELL_DEGREES)));
+    }
+
+    private static int column(double longitude) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / CELL_DEGREES), COLUMNS);
+    }
+
+    private static long cellKey(int row, int column) {
+        return (long) row * COLUMNS + column;
+    }
+
+    /**
+     * A session's fence and the grid cells it is entered in. Compared by identity, so
+     * entering a fence in many cells does not hash its cell list each time.
+     */
+    private static final class Fence {
+        private final String sessionId;
+        private final double latitude;
+        private final double longitude;
+        private final double radiusKm;
+        private final Set<BedType> bedTypes;
+        private final List<Long> cellKeys;
+
+        Fence(String sessionId, double latitude, double longitude, double radiusKm,
+              Set<BedType> bedTypes, List<Long> cellKeys) {
+            this.sessionId = sessionId;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.radiusKm = radiusKm;
+            this.bedTypes = bedTypes;
+            this.cellKeys = cellKeys;
+        }
+    }
+}
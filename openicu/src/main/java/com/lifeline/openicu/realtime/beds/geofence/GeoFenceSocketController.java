@@ -0,0 +1,54 @@
+package com.lifeline.openicu.realtime.beds.geofence;
+
+import com.lifeline.openicu.realtime.beds.dto.GeoFenceRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Controller;
+
+/**
+ * WebSocket controller for geo-fenced bed events.
+ * A client registers a fence (centre, radius and bed types) and then receives, on
+ * /user/topic/geofence, the ICU availability and bed status events of hospitals inside it.
+ */
+@Controller
+public class GeoFenceSocketController {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GeoFenceSocketController.class);
+    
+    private final GeoFenceIndex geoFenceIndex;
+    
+    public GeoFenceSocketController(GeoFenceIndex geoFenceIndex) {
+        this.geoFenceIndex = geoFenceIndex;
+    }
+    
+    /**
+     * Register or move the requesting session's fence. Invalid fences are ignored and
+     * leave any previous fence in place.
+     * 
+     * @param request Fence centre, radius in kilometers and bed types
+     * @param headerAccessor Message header accessor to extract session ID
+     */
+    @MessageMapping("/beds/geofence")
+    public void registerGeoFence(@Payload GeoFenceRequest request, SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
+        try {
+            geoFenceIndex.register(sessionId, request.getLatitude(), request.getLongitude(),
+                    request.getRadiusKm(), request.getBedTypes());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected geo-fence from session {}: {}", sessionId, e.getMessage());
+        }
+    }
+    
+    /**
+     * Drop the requesting session's fence.
+     * 
+     * @param headerAccessor Message header accessor to extract session ID
+     */
+    @MessageMapping("/beds/geofence/clear")
+    public void clearGeoFence(SimpMessageHeaderAccessor headerAccessor) {
+        geoFenceIndex.remove(headerAccessor.getSessionId());
+    }
+}
@@ -1,38 +1,76 @@
 package com.lifeline.openicu.realtime.beds.publisher;
 
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.index.HospitalRegionIndex;
+import com.lifeline.openicu.realtime.beds.geofence.GeoFenceIndex;
 import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
 import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Pure event publisher for Backend-2 real-time bed updates.
  * Publishes pre-prepared event payloads to WebSocket topics.
+ * Besides the global topics, each event goes to a topic for its hospital or region, so
+ * a dashboard only receives the traffic it subscribes to: /topic/beds/{hospitalId} and
+ * /topic/icu/{state}/{district} (see HospitalRegionIndex.Region#path for the naming;
+ * /topic/icu/{state}/** covers a whole state). Sessions with a geo-fence also get the
+ * events of hospitals inside it on /user/topic/geofence.
  */
 @Component
 public class BedEventPublisher {
     
+    private static final String BED_TOPIC = "/topic/beds";
+    private static final String ICU_TOPIC = "/topic/icu";
+    private static final String GEOFENCE_TOPIC = "/topic/geofence";
+    private static final Set<BedType> ICU_BED_TYPES = EnumSet.of(BedType.ICU, BedType.VENTILATOR);
+    
     private final SimpMessagingTemplate messagingTemplate;
+    private final HospitalRegionIndex hospitalRegionIndex;
+    private final GeoFenceIndex geoFenceIndex;
     
-    public BedEventPublisher(SimpMessagingTemplate messagingTemplate) {
+    public BedEventPublisher(SimpMessagingTemplate messagingTemplate, HospitalRegionIndex hospitalRegionIndex,
+                             GeoFenceIndex geoFenceIndex) {
         this.messagingTemplate = messagingTemplate;
+        this.hospitalRegionIndex = hospitalRegionIndex;
+        this.geoFenceIndex = geoFenceIndex;
     }
     
     /**
-     * Publishes bed status change event to /topic/beds.
+     * Publishes bed status change event to /topic/beds and /topic/beds/{hospitalId}.
      * 
      * @param event pre-prepared bed status event payload
      */
     public void publishBedStatusChange(BedStatusEvent event) {
-        messagingTemplate.convertAndSend("/topic/beds", event);
+        messagingTemplate.convertAndSend(BED_TOPIC, event);
+        messagingTemplate.convertAndSend(BED_TOPIC + "/" + event.getHospitalId(), event);
+        sendToGeoFences(event.getHospitalId(), EnumSet.of(event.getBedType()), event);
     }
     
     /**
-     * Publishes ICU availability count update to /topic/icu.
+     * Publishes ICU availability count update to /topic/icu and /topic/icu/{state}/{district}.
      * 
      * @param event pre-prepared ICU availability event payload
      */
     public void publishICUAvailabilityUpdate(ICUAvailabilityEvent event) {
-        messagingTemplate.convertAndSend("/topic/icu", event);
+        messagingTemplate.convertAndSend(ICU_TOPIC, event);
+        messagingTemplate.convertAndSend(
+            ICU_TOPIC + "/" + hospitalRegionIndex.region(event.getHospitalId()).path(), event);
+        sendToGeoFences(event.getHospitalId(), ICU_BED_TYPES, event);
+    }
+    
+    // Sessions are addressed by id, as geo-fencing clients need not be authenticated
+    private void sendToGeoFences(Long hospitalId, Set<BedType> bedTypes, Object event) {
+        for (String sessionId : geoFenceIndex.sessionsFor(hospitalId, bedTypes)) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            headers.setLeaveMutable(true);
+            messagingTemplate.convertAndSendToUser(sessionId, GEOFENCE_TOPIC, event, headers.getMessageHeaders());
+        }
     }
 }
\ No newline at end of file
@@ -2,29 +2,83 @@ package com.lifeline.openicu.realtime.beds.service;
 
 import com.lifeline.openicu.bed.entity.BedType;
 import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.index.BedAvailabilityChangedEvent;
 import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.config.IcuAvailabilityProperties;
 import com.lifeline.openicu.realtime.beds.dto.BedStatusEvent;
 import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
 import com.lifeline.openicu.realtime.beds.publisher.BedEventPublisher;
+import com.lifeline.openicu.realtime.outbox.RealtimeOutbox;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Orchestration service for Backend-2 real-time bed events.
  * Creates event payloads and delegates publishing to BedEventPublisher.
+ * ICU availability changes are coalesced per hospital: the first change at a hospital
+ * opens a window, and when it closes the current counts are read once and published
+ * once, however many beds flipped in between. Counts equal to the last published ones
+ * are not sent again.
  */
 @Service
 public class BedRealtimeService {
     
+    private static final Logger logger = LoggerFactory.getLogger(BedRealtimeService.class);
+    
     private final BedEventPublisher bedEventPublisher;
     private final BedRepository bedRepository;
+    private final IcuAvailabilityProperties icuAvailabilityProperties;
+    private final RealtimeOutbox realtimeOutbox;
     private final DateTimeFormatter isoFormatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
-    public BedRealtimeService(BedEventPublisher bedEventPublisher, BedRepository bedRepository) {
+    // Hospitals with a publish scheduled for the end of their current window
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    
+    // Last published ICU and ventilator counts per hospital, packed into one long
+    private final Map<Long, Long> lastPublished = new ConcurrentHashMap<>();
+    
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "icu-availability-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public BedRealtimeService(BedEventPublisher bedEventPublisher, BedRepository bedRepository,
+                              IcuAvailabilityProperties icuAvailabilityProperties,
+                              RealtimeOutbox realtimeOutbox) {
         this.bedEventPublisher = bedEventPublisher;
         this.bedRepository = bedRepository;
+        this.icuAvailabilityProperties = icuAvailabilityProperties;
+        this.realtimeOutbox = realtimeOutbox;
+    }
+    
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+    
+    /**
+     * Broadcast ICU availability when a hospital's ICU or ventilator beds change, once
+     * the change is committed.
+     */
+    @EventListener
+    public void onBedAvailabilityChanged(BedAvailabilityChangedEvent event) {
+        if (event.bedType() == BedType.ICU || event.bedType() == BedType.VENTILATOR) {
+            Long hospitalId = event.hospitalId();
+            realtimeOutbox.publishAfterCommit("ICU_AVAILABILITY", () -> onICUAvailabilityChange(hospitalId));
+        }
     }
     
     /**
@@ -52,30 +106,55 @@ public class BedRealtimeService {
     
     /**
      * Handles ICU availability count changes.
-     * Calculates current counts and publishes ICUAvailabilityEvent to /topic/icu.
+     * Schedules an ICUAvailabilityEvent to /topic/icu at the end of the hospital's
+     * coalescing window; further changes within the window share that event.
      * 
      * @param hospitalId the hospital with updated availability counts
      */
     public void onICUAvailabilityChange(Long hospitalId) {
-        // Calculate current ICU bed availability
-        int availableICUBeds = bedRepository.countByHospitalIdAndBedTypeAndBedStatus(
-            hospitalId, BedType.ICU, BedStatus.AVAILABLE
-        );
-        
-        // Calculate current ventilator availability
-        int availableVentilators = bedRepository.countByHospitalIdAndBedTypeAndBedStatus(
-            hospitalId, BedType.VENTILATOR, BedStatus.AVAILABLE
-        );
-        
-        String timestamp = LocalDateTime.now().format(isoFormatter);
-        
-        ICUAvailabilityEvent event = new ICUAvailabilityEvent(
-            hospitalId,
-            availableICUBeds,
-            availableVentilators,
-            timestamp
-        );
-        
-        bedEventPublisher.publishICUAvailabilityUpdate(event);
+        long windowMillis = icuAvailabilityProperties.getCoalesceWindow().toMillis();
+        if (windowMillis <= 0) {
+            publishICUAvailability(hospitalId);
+            return;
+        }
+        if (pending.add(hospitalId)) {
+            scheduler.schedule(() -> publishICUAvailability(hospitalId), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void publishICUAvailability(Long hospitalId) {
+        // Cleared before reading, so a change during the read opens a new window
+        pending.remove(hospitalId);
+        try {
+            // Calculate current ICU bed and ventilator availability in one query
+            int availableICUBeds = 0;
+            int availableVentilators = 0;
+            for (Object[] row : bedRepository.countByBedType(hospitalId, BedStatus.AVAILABLE)) {
+                if (row[0] == BedType.ICU) {
+                    availableICUBeds = ((Number) row[1]).intValue();
+                } else if (row[0] == BedType.VENTILATOR) {
+                    availableVentilators = ((Number) row[1]).intValue();
+                }
+            }
+            
+            Long counts = ((long) availableICUBeds << 32) | availableVentilators;
+            if (counts.equals(lastPublished.get(hospitalId))) {
+                return;
+            }
+            
+            String timestamp = LocalDateTime.now().format(isoFormatter);
+            
+            ICUAvailabilityEvent event = new ICUAvailabilityEvent(
+                hospitalId,
+                availableICUBeds,
+                availableVentilators,
+                timestamp
+            );
+            
+            bedEventPublisher.publishICUAvailabilityUpdate(event);
+            lastPublished.put(hospitalId, counts);
+        } catch (Exception e) {
+            logger.error("Failed to publish ICU availability for hospital ID: {}", hospitalId, e);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.lifeline.openicu.realtime.hospital;
+
+import com.lifeline.openicu.entity.Hospital;
+
+/**
+ * Application event raised by HospitalEventPublisher whenever a hospital is
+ * created or updated. In-process indexes listen for it to stay current.
+ *
+ * @param hospital the hospital as persisted
+ * @param eventType "HOSPITAL_CREATED" or "HOSPITAL_UPDATED"
+ */
+public record HospitalChangedEvent(Hospital hospital, String eventType) {
+}
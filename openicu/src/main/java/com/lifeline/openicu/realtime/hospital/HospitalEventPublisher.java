@@ -1,13 +1,21 @@
 package com.lifeline.openicu.realtime.hospital;
 
 import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.outbox.RealtimeOutbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Publisher for hospital events.
- * Bridges the Hospital Service and Realtime Service to broadcast hospital changes.
+ * Bridges the Hospital Service and Realtime Service to broadcast hospital changes,
+ * and raises a HospitalChangedEvent so in-process indexes stay current.
+ * Both happen only once the change commits: the event is raised from afterCommit, so
+ * no index ever holds a rolled-back row, and the WebSocket broadcast goes through the
+ * realtime outbox.
  */
 @Component
 public class HospitalEventPublisher {
@@ -17,9 +25,15 @@ public class HospitalEventPublisher {
     private static final String EVENT_UPDATED = "HOSPITAL_UPDATED";
     
     private final HospitalRealtimeService realtimeService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RealtimeOutbox realtimeOutbox;
     
-    public HospitalEventPublisher(HospitalRealtimeService realtimeService) {
+    public HospitalEventPublisher(HospitalRealtimeService realtimeService,
+                                  ApplicationEventPublisher applicationEventPublisher,
+                                  RealtimeOutbox realtimeOutbox) {
         this.realtimeService = realtimeService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.realtimeOutbox = realtimeOutbox;
     }
     
     /**
@@ -31,7 +45,9 @@ public class HospitalEventPublisher {
     public void publishHospitalCreated(Hospital hospital) {
         try {
             logger.info("Publishing HOSPITAL_CREATED event for hospital ID: {}", hospital.getId());
-            realtimeService.broadcastHospitalEvent(hospital, EVENT_CREATED);
+            publishAfterCommit(new HospitalChangedEvent(hospital, EVENT_CREATED));
+            realtimeOutbox.publishAfterCommit(EVENT_CREATED,
+                () -> realtimeService.broadcastHospitalEvent(hospital, EVENT_CREATED));
         } catch (Exception e) {
             logger.error("Failed to publish HOSPITAL_CREATED event for hospital ID: {}", 
                         hospital.getId(), e);
@@ -48,11 +64,38 @@ public class HospitalEventPublisher {
     public void publishHospitalUpdated(Hospital hospital) {
         try {
             logger.info("Publishing HOSPITAL_UPDATED event for hospital ID: {}", hospital.getId());
-            realtimeService.broadcastHospitalEvent(hospital, EVENT_UPDATED);
+            publishAfterCommit(new HospitalChangedEvent(hospital, EVENT_UPDATED));
+            realtimeOutbox.publishAfterCommit(EVENT_UPDATED,
+                () -> realtimeService.broadcastHospitalEvent(hospital, EVENT_UPDATED));
         } catch (Exception e) {
             logger.error("Failed to publish HOSPITAL_UPDATED event for hospital ID: {}", 
                         hospital.getId(), e);
             // Don't propagate exception - WebSocket errors shouldn't break REST API
         }
     }
+    
+    // Registered before the outbox broadcast, so indexes and the snapshot registry are
+    // current by the time it is sent
+    private void publishAfterCommit(HospitalChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+    
+    private void publish(HospitalChangedEvent event) {
+        try {
+            applicationEventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            // The change is committed; a failing listener must not fail the request
+            logger.error("Failed to apply {} event for hospital ID: {}",
+                        event.eventType(), event.hospital().getId(), e);
+        }
+    }
 }
@@ -1,10 +1,13 @@
 package com.lifeline.openicu.realtime.hospital;
 
 import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.HospitalRegionIndex;
 import com.lifeline.openicu.realtime.hospital.dto.HospitalBroadcastMessage;
-import com.lifeline.openicu.repository.HospitalRepository;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalSnapshotFrame;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -14,22 +17,24 @@ import java.util.List;
 
 /**
  * Service for broadcasting hospital data changes via WebSocket.
- * Transforms hospital entities into broadcast messages and sends them to subscribed clients.
+ * Transforms hospital entities into broadcast messages and sends them to subscribed clients,
+ * on /topic/hospitals and on the hospital's region topic /topic/hospitals/{state}/{district}.
  */
 @Service
 public class HospitalRealtimeService {
     
     private static final Logger logger = LoggerFactory.getLogger(HospitalRealtimeService.class);
     private static final String HOSPITAL_TOPIC = "/topic/hospitals";
+    private static final String SNAPSHOT_TOPIC = "/topic/hospitals/snapshot";
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
     private final SimpMessagingTemplate messagingTemplate;
-    private final HospitalRepository hospitalRepository;
+    private final HospitalSnapshotCache snapshotCache;
     
     public HospitalRealtimeService(SimpMessagingTemplate messagingTemplate, 
-                                   HospitalRepository hospitalRepository) {
+                                   HospitalSnapshotCache snapshotCache) {
         this.messagingTemplate = messagingTemplate;
-        this.hospitalRepository = hospitalRepository;
+        this.snapshotCache = snapshotCache;
     }
     
     /**
@@ -42,6 +47,8 @@ public class HospitalRealtimeService {
         try {
             HospitalBroadcastMessage message = createBroadcastMessage(hospital, eventType);
             messagingTemplate.convertAndSend(HOSPITAL_TOPIC, message);
+            messagingTemplate.convertAndSend(HOSPITAL_TOPIC + "/"
+                + new HospitalRegionIndex.Region(hospital.getState(), hospital.getDistrict()).path(), message);
             logger.debug("Broadcast {} event for hospital ID: {}", eventType, hospital.getId());
         } catch (Exception e) {
             logger.error("Failed to broadcast hospital event for ID: {}", hospital.getId(), e);
@@ -49,22 +56,30 @@ public class HospitalRealtimeService {
     }
     
     /**
-     * Send all hospitals to a specific client session.
-     * Used when a client first connects and requests the full hospital list.
+     * Send the hospital registry to a specific client session, as chunked frames on
+     * /user/topic/hospitals/snapshot.
+     * Used when a client connects (full snapshot) or reconnects (changes since the last
+     * version it saw).
      * 
      * @param sessionId The WebSocket session ID of the requesting client
+     * @param sinceVersion The last registry version the client saw, or null for everything
      */
-    public void sendAllHospitalsToClient(String sessionId) {
+    public void sendHospitalsToClient(String sessionId, Long sinceVersion) {
         try {
-            List<Hospital> hospitals = hospitalRepository.findAll();
-            logger.info("Sending {} hospitals to client session: {}", hospitals.size(), sessionId);
+            List<HospitalSnapshotFrame> frames = snapshotCache.framesSince(sinceVersion);
+            logger.info("Sending {} hospital frames ({}) to client session: {}",
+                       frames.size(), frames.get(0).getType(), sessionId);
             
-            for (Hospital hospital : hospitals) {
-                HospitalBroadcastMessage message = createBroadcastMessage(hospital, "HOSPITAL_LIST");
+            // No authenticated principal: address the session itself via the sessionId header
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            headers.setLeaveMutable(true);
+            for (HospitalSnapshotFrame frame : frames) {
                 messagingTemplate.convertAndSendToUser(
                     sessionId, 
-                    HOSPITAL_TOPIC, 
-                    message
+                    SNAPSHOT_TOPIC, 
+                    frame,
+                    headers.getMessageHeaders()
                 );
             }
         } catch (Exception e) {
@@ -91,7 +106,8 @@ public class HospitalRealtimeService {
             hospital.getLongitude(),
             hospital.getState(),
             hospital.getDistrict(),
-            timestamp
+            timestamp,
+            snapshotCache.version(hospital.getId())
         );
     }
 }
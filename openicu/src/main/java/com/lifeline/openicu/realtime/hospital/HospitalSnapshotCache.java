@@ -0,0 +1,197 @@
+package com.lifeline.openicu.realtime.hospital;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalBroadcastMessage;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalSnapshotFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Versioned copy of the hospital registry as sent to WebSocket clients, so that a
+ * client asking for the hospital list costs neither a table load nor a frame per hospital.
+ * Every hospital change bumps the registry version and stamps the hospital with it.
+ * The full snapshot is kept as ready-to-send frames of {@link #CHUNK_SIZE} hospitals,
+ * each a gzip-compressed, base64-encoded JSON array, and is rebuilt on the first request
+ * after a change. A client that reconnects with the last version it saw gets only the
+ * hospitals changed since.
+ * Versions start from the startup time in microseconds, so a version from before a
+ * restart is older than any current one and gets the full snapshot.
+ */
+@Component
+public class HospitalSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalSnapshotCache.class);
+
+    /**
+     * Hospitals per frame.
+     */
+    public static final int CHUNK_SIZE = 2000;
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+    private static final String DELTA = "DELTA";
+    private static final String ENCODING = "gzip+base64";
+    private static final String EVENT_LIST = "HOSPITAL_LIST";
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final ObjectMapper objectMapper;
+
+    // Latest message per hospital, stamped with the version of its last change; guarded by this
+    private final Map<Long, HospitalBroadcastMessage> registry = new HashMap<>();
+    private long baseVersion;
+    private volatile long version;
+
+    // Held while rebuilding, so clients arriving meanwhile wait and share the result
+    private final Object snapshotLock = new Object();
+    private volatile Snapshot snapshot;
+
+    public HospitalSnapshotCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Load the registry from every hospital in the database.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public synchronized void load(List<Hospital> hospitals) {
+        baseVersion = System.currentTimeMillis() * 1000;
+        version = baseVersion;
+        for (Hospital hospital : hospitals) {
+            registry.put(hospital.getId(), toMessage(hospital, version));
+        }
+        logger.info("Hospital snapshot registry loaded: {} hospitals at version {}", registry.size(), version);
+    }
+
+    /**
+     * Record a created or updated hospital under a new version. The event is only raised
+     * once the change commits, so a rolled-back change is never handed to clients.
+     */
+    @EventListener
+    public synchronized void onHospitalChanged(HospitalChangedEvent event) {
+        version++;
+        registry.put(event.hospital().getId(), toMessage(event.hospital(), version));
+    }
+
+    /**
+     * Version of the hospital's last change, or null if it is not in the registry.
+     */
+    public synchronized Long version(Long hospitalId) {
+        HospitalBroadcastMessage message = registry.get(hospitalId);
+        return message == null ? null : message.getVersion();
+    }
+
+    /**
+     * Frames bringing a client up to date: the hospitals changed after sinceVersion, or the
+     * full snapshot if sinceVersion is null or not from the current registry.
+     *
+     * @param sinceVersion highest version the client has seen, or null
+     */
+    public List<HospitalSnapshotFrame> framesSince(Long sinceVersion) {
+        List<HospitalBroadcastMessage> changed = new ArrayList<>();
+        long current;
+        synchronized (this) {
+            current = version;
+            if (sinceVersion == null || sinceVersion < baseVersion || sinceVersion > current) {
+                changed = null;
+            } else {
+                for (HospitalBroadcastMessage message : registry.values()) {
+                    if (message.getVersion() > sinceVersion) {
+                        changed.add(message);
+                    }
+                }
+                // A delta this large costs more to build than the cached snapshot
+                if (changed.size() > registry.size() / 2) {
+                    changed = null;
+                }
+            }
+        }
+        if (changed == null) {
+            return snapshot();
+        }
+        changed.sort(Comparator.comparing(HospitalBroadcastMessage::getHospitalId));
+        return frames(DELTA, current, changed);
+    }
+
+    // Cached full snapshot, rebuilt if the registry has moved on since it was built
+    private List<HospitalSnapshotFrame> snapshot() {
+        Snapshot cached = snapshot;
+        if (cached != null && cached.version() == version) {
+            return cached.frames();
+        }
+
+        synchronized (snapshotLock) {
+            List<HospitalBroadcastMessage> messages;
+            long current;
+            synchronized (this) {
+                current = version;
+                cached = snapshot;
+                if (cached != null && cached.version() == current) {
+                    return cached.frames();
+                }
+                messages = new ArrayList<>(registry.values());
+            }
+
+            // Serialised outside the registry lock so hospital changes are not held up
+            messages.sort(Comparator.comparing(HospitalBroadcastMessage::getHospitalId));
+            Snapshot rebuilt = new Snapshot(current, frames(SNAPSHOT, current, messages));
+            snapshot = rebuilt;
+            logger.info("Rebuilt hospital snapshot at version {}: {} hospitals in {} frames",
+                    current, messages.size(), rebuilt.frames().size());
+            return rebuilt.frames();
+        }
+    }
+
+    private List<HospitalSnapshotFrame> frames(String type, long version, List<HospitalBroadcastMessage> messages) {
+        int chunkCount = Math.max(1, (messages.size() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        List<HospitalSnapshotFrame> frames = new ArrayList<>(chunkCount);
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            List<HospitalBroadcastMessage> rows = messages.subList(
+                    chunk * CHUNK_SIZE, Math.min(messages.size(), (chunk + 1) * CHUNK_SIZE));
+            frames.add(new HospitalSnapshotFrame(type, version, chunk, chunkCount, rows.size(), ENCODING, encode(rows)));
+        }
+        return List.copyOf(frames);
+    }
+
+    private String encode(List<HospitalBroadcastMessage> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode hospital snapshot", e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private static HospitalBroadcastMessage toMessage(Hospital hospital, long version) {
+        return new HospitalBroadcastMessage(
+            EVENT_LIST,
+            hospital.getId(),
+            hospital.getName(),
+            hospital.getLatitude(),
+            hospital.getLongitude(),
+            hospital.getState(),
+            hospital.getDistrict(),
+            LocalDateTime.now().format(ISO_FORMATTER),
+            version
+        );
+    }
+
+    private record Snapshot(long version, List<HospitalSnapshotFrame> frames) {
+    }
+}
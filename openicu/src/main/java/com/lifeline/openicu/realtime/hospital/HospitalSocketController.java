@@ -2,7 +2,9 @@ package com.lifeline.openicu.realtime.hospital;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalSnapshotRequest;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
@@ -22,16 +24,20 @@ public class HospitalSocketController {
     }
     
     /**
-     * Handle client request for full hospital list.
-     * Sends all hospitals to the requesting client's session.
+     * Handle client request for the hospital list.
+     * Sends the full registry, or with a sinceVersion only the hospitals changed since,
+     * to the requesting client's session.
      * 
+     * @param request Optional request body carrying sinceVersion
      * @param headerAccessor Message header accessor to extract session ID
      */
     @MessageMapping("/hospitals/list")
-    public void requestHospitalList(SimpMessageHeaderAccessor headerAccessor) {
+    public void requestHospitalList(@Payload(required = false) HospitalSnapshotRequest request,
+                                    SimpMessageHeaderAccessor headerAccessor) {
         String sessionId = headerAccessor.getSessionId();
-        logger.info("Received hospital list request from session: {}", sessionId);
+        Long sinceVersion = request != null ? request.getSinceVersion() : null;
+        logger.info("Received hospital list request from session: {} (since version {})", sessionId, sinceVersion);
         
-        realtimeService.sendAllHospitalsToClient(sessionId);
+        realtimeService.sendHospitalsToClient(sessionId, sinceVersion);
     }
 }
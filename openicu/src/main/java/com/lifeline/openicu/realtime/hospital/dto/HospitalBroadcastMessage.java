@@ -52,4 +52,9 @@ public class HospitalBroadcastMessage {
      * ISO 8601 formatted timestamp of the event
      */
     private String timestamp;
+    
+    /**
+     * Registry version of this change; see HospitalSnapshotFrame
+     */
+    private Long version;
 }
@@ -0,0 +1,51 @@
+package com.lifeline.openicu.realtime.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One frame of a hospital registry snapshot or delta, sent to a single session on
+ * /user/topic/hospitals/snapshot in reply to /app/hospitals/list.
+ * A reply is chunkCount frames sharing the same version.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HospitalSnapshotFrame {
+    
+    /**
+     * "SNAPSHOT" for the full registry, "DELTA" for hospitals changed since the requested version
+     */
+    private String type;
+    
+    /**
+     * Registry version the reply is current to; pass it as sinceVersion when reconnecting
+     */
+    private long version;
+    
+    /**
+     * Zero-based index of this frame within the reply
+     */
+    private int chunk;
+    
+    /**
+     * Number of frames in the reply
+     */
+    private int chunkCount;
+    
+    /**
+     * Number of hospitals in this frame
+     */
+    private int count;
+    
+    /**
+     * How data is encoded; always "gzip+base64"
+     */
+    private String encoding;
+    
+    /**
+     * JSON array of HospitalBroadcastMessage, gzip-compressed and base64-encoded
+     */
+    private String data;
+}
@@ -0,0 +1,20 @@
+package com.lifeline.openicu.realtime.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional body of a /app/hospitals/list request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HospitalSnapshotRequest {
+    
+    /**
+     * Highest registry version the client has seen, to receive only later changes;
+     * null for the full registry
+     */
+    private Long sinceVersion;
+}
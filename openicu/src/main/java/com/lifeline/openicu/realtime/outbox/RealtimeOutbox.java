@@ -0,0 +1,144 @@
+package com.lifeline.openicu.realtime.outbox;
+
+import com.lifeline.openicu.config.RealtimeOutboxProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox for realtime (WebSocket) publication of hospital and bed changes.
+ * A change captured inside a transaction is held until that transaction commits and
+ * dropped if it rolls back; outside a transaction it is released at once. Released
+ * changes are published in order by a single dedicated thread, so the request thread
+ * never pays for broker fan-out. The queue is bounded: when it is full, the committing
+ * thread waits briefly for room and then drops the event, so a slow broker never stalls
+ * requests or dispatches whose transactions have already committed. Clients can catch
+ * up on dropped hospital changes with a snapshot request.
+ */
+@Component
+public class RealtimeOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealtimeOutbox.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong queueFull = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong totalLagNanos = new AtomicLong();
+    private final AtomicLong maxLagNanos = new AtomicLong();
+    private volatile long lastLagNanos;
+
+    public RealtimeOutbox(RealtimeOutboxProperties properties) {
+        long offerTimeoutMillis = properties.getOfferTimeoutMillis();
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "realtime-outbox");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    // Bounded back-pressure: wait a little for room, then give up on the event
+                    queueFull.incrementAndGet();
+                    if (pool.isShutdown()) {
+                        throw new RejectedExecutionException("Realtime outbox is shut down");
+                    }
+                    try {
+                        if (!pool.getQueue().offer(runnable, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                            throw new RejectedExecutionException("Realtime outbox queue is full");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted waiting for the realtime outbox", e);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Publish a change once the current transaction commits, or now if there is none.
+     *
+     * @param type what is being published, for logging
+     * @param publication sends the change to its WebSocket topics
+     */
+    public void publishAfterCommit(String type, Runnable publication) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release(type, publication);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        discarded.incrementAndGet();
+                    }
+                }
+            });
+        } else {
+            release(type, publication);
+        }
+    }
+
+    /**
+     * Counters for monitoring: queue depth and capacity, events published, failed,
+     * discarded on rollback and dropped for want of room, times the queue was full, and
+     * publish lag (from commit to published) in milliseconds.
+     */
+    public Map<String, Long> stats() {
+        long count = published.get() + failed.get();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", (long) executor.getQueue().size());
+        stats.put("queueCapacity", (long) (executor.getQueue().size() + executor.getQueue().remainingCapacity()));
+        stats.put("published", published.get());
+        stats.put("failed", failed.get());
+        stats.put("discarded", discarded.get());
+        stats.put("queueFull", queueFull.get());
+        stats.put("dropped", dropped.get());
+        stats.put("lastLagMillis", TimeUnit.NANOSECONDS.toMillis(lastLagNanos));
+        stats.put("maxLagMillis", TimeUnit.NANOSECONDS.toMillis(maxLagNanos.get()));
+        stats.put("averageLagMillis", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLagNanos.get() / count));
+        return stats;
+    }
+
+    private void release(String type, Runnable publication) {
+        long releasedAt = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                try {
+                    publication.run();
+                    published.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    logger.error("Failed to publish realtime {} event", type, e);
+                }
+                long lag = System.nanoTime() - releasedAt;
+                lastLagNanos = lag;
+                totalLagNanos.addAndGet(lag);
+                maxLagNanos.accumulateAndGet(lag, Math::max);
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+            logger.warn("Dropped realtime {} event: {}", type, e.getMessage());
+        }
+    }
+}
@@ -12,7 +12,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSpecificationExecutor<Hospital> {
+public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSpecificationExecutor<Hospital>,
+        HospitalRepositoryCustom {
     
     // Simple name search
     Page<Hospital> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -26,20 +27,6 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSp
            "LOWER(h.address) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Hospital> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
     
-    // Native query for nearby hospitals using Haversine formula
-    @Query(value = "SELECT *, " +
-           "(6371 * acos(cos(radians(:latitude)) * cos(radians(latitude)) * " +
-           "cos(radians(longitude) - radians(:longitude)) + " +
-           "sin(radians(:latitude)) * sin(radians(latitude)))) AS distance " +
-           "FROM hospitals " +
-           "WHERE latitude IS NOT NULL AND longitude IS NOT NULL " +
-           "HAVING distance <= :radiusKm " +
-           "ORDER BY distance",
-           nativeQuery = true)
-    List<Object[]> findNearbyHospitals(@Param("latitude") Double latitude,
-                                       @Param("longitude") Double longitude,
-                                       @Param("radiusKm") Double radiusKm);
-    
     // Administrative boundary filters
     Page<Hospital> findByStateIgnoreCase(String state, Pageable pageable);
     
@@ -54,4 +41,18 @@ public interface HospitalRepository extends JpaRepository<Hospital, Long>, JpaSp
     Page<Hospital> findByHospitalCategoryIgnoreCase(String category, Pageable pageable);
     
     Page<Hospital> findByHospitalCareTypeIgnoreCase(String careType, Pageable pageable);
+    
+    /**
+     * State and district of every hospital, as rows of [id, state, district].
+     */
+    @Query("SELECT h.id, h.state, h.district FROM Hospital h")
+    List<Object[]> findRegions();
+    
+    /**
+     * Coordinates of hospitals whose geo cell has not been derived yet, e.g. rows written
+     * before the column existed. Returns rows of [id, latitude, longitude].
+     */
+    @Query("SELECT h.id, h.latitude, h.longitude FROM Hospital h " +
+           "WHERE h.geoCell IS NULL AND h.latitude IS NOT NULL AND h.longitude IS NOT NULL")
+    List<Object[]> findCoordinatesWithoutGeoCell();
 }
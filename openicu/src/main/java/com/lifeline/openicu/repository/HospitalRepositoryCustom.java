@@ -0,0 +1,69 @@
+package com.lifeline.openicu.repository;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.GeoCell;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queries built at run time: sparse-fieldset reads, where only the requested hospital
+ * columns are selected and each row comes back as a map of field name to value, facet
+ * counts, and nearby search over a variable set of geo cell ranges.
+ */
+public interface HospitalRepositoryCustom {
+
+    /**
+     * Page of hospitals matching a specification, projected onto the given fields.
+     *
+     * @param specification filter, or null for all hospitals
+     * @param pageable page and sort
+     * @param fields entity attribute names to select, in output order
+     */
+    Page<Map<String, Object>> findAllFields(Specification<Hospital> specification, Pageable pageable,
+                                            List<String> fields);
+
+    /**
+     * Counts of hospitals matching a specification per value of each facet attribute, in one
+     * query: a UNION ALL of one grouped select per attribute. Returns rows of
+     * [attribute, value, count]; hospitals without a value are counted in a null row, so the
+     * counts of each attribute add up to the number of matching hospitals.
+     *
+     * @param specification filter, or null for all hospitals
+     * @param attributes entity attributes to group by, e.g. state
+     */
+    List<Object[]> countByFacets(Specification<Hospital> specification, List<String> attributes);
+
+    /**
+     * Hospitals with the given ids, projected onto the given fields and keyed by id.
+     */
+    Map<Long, Map<String, Object>> findFieldsByIdIn(Collection<Long> ids, List<String> fields);
+
+    /**
+     * One page of hospitals within a radius, nearest first.
+     * Hospitals are preselected by geo cell range through the geo_cell index, then by the
+     * bounding box, and finally by exact Haversine distance. Optional filters are disabled
+     * with -1 or ''. Returns rows of [hospital id, distance km].
+     *
+     * @param cells geo cell ranges covering the bounding box
+     */
+    List<Object[]> findNearbyHospitals(double latitude, double longitude, double radiusKm,
+                                       List<GeoCell.Range> cells,
+                                       double minLatitude, double maxLatitude,
+                                       double minLongitude, double maxLongitude,
+                                       int minBeds, String category, String emergencyService,
+                                       int limit, long offset);
+
+    /**
+     * Number of hospitals matched by findNearbyHospitals across all pages.
+     */
+    long countNearbyHospitals(double latitude, double longitude, double radiusKm,
+                              List<GeoCell.Range> cells,
+                              double minLatitude, double maxLatitude,
+                              double minLongitude, double maxLongitude,
+                              int minBeds, String category, String emergencyService);
+}
@@ -0,0 +1,238 @@
+package com.lifeline.openicu.repository;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.GeoCell;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Criteria-based tuple queries and dynamic native SQL backing {@link HospitalRepositoryCustom}.
+ */
+public class HospitalRepositoryImpl implements HospitalRepositoryCustom {
+
+    private static final String DISTANCE_KM =
+            "2 * 6371.0 * ASIN(LEAST(1.0, SQRT(" +
+            "  POWER(SIN(RADIANS(h.latitude - :latitude) / 2), 2) + " +
+            "  COS(RADIANS(:latitude)) * COS(RADIANS(h.latitude)) * " +
+            "  POWER(SIN(RADIANS(h.longitude - :longitude) / 2), 2))))";
+
+    private static final String NEARBY_FILTERS =
+            "AND h.latitude BETWEEN :minLatitude AND :maxLatitude " +
+            "AND h.longitude BETWEEN :minLongitude AND :maxLongitude " +
+            "AND (:minBeds < 0 OR h.total_num_beds IS NULL OR h.total_num_beds >= :minBeds) " +
+            "AND (:category = '' OR h.hospital_category IS NULL " +
+            "  OR LOWER(h.hospital_category) = LOWER(:category)) " +
+            "AND (:emergencyService = '' OR h.emergency_services IS NULL " +
+            "  OR LOWER(h.emergency_services) LIKE CONCAT('%', LOWER(:emergencyService), '%'))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findAllFields(Specification<Hospital> specification, Pageable pageable,
+                                                   List<String> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Hospital> root = query.from(Hospital.class);
+        query.multiselect(selections(root, fields));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = toMaps(typedQuery.getResultList(), fields);
+
+        // The count is skipped when the page itself shows the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(specification));
+    }
+
+    @Override
+    public Map<Long, Map<String, Object>> findFieldsByIdIn(Collection<Long> ids, List<String> fields) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<String> selected = fields.contains("id") ? fields : withId(fields);
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Hospital> root = query.from(Hospital.class);
+        query.multiselect(selections(root, selected));
+        query.where(root.get("id").in(ids));
+
+        Map<Long, Map<String, Object>> result = new HashMap<>();
+        for (Map<String, Object> row : toMaps(entityManager.createQuery(query).getResultList(), selected)) {
+            Long id = (Long) row.get("id");
+            if (!fields.contains("id")) {
+                row.remove("id");
+            }
+            result.put(id, row);
+        }
+        return result;
+    }
+
+    @Override
+    public List<Object[]> countByFacets(Specification<Hospital> specification, List<String> attributes) {
+        HibernateCriteriaBuilder criteriaBuilder = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        List<CriteriaQuery<Object[]>> selects = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+            Root<Hospital> root = query.from(Hospital.class);
+            Expression<String> facet = root.get(attribute);
+            query.multiselect(criteriaBuilder.literal(attribute), facet, criteriaBuilder.count(root));
+            if (specification != null) {
+                Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+                if (predicate != null) {
+                    query.where(predicate);
+                }
+            }
+            query.groupBy(facet);
+            selects.add(query);
+        }
+        CriteriaQuery<Object[]> union = selects.size() == 1 ? selects.get(0)
+                : criteriaBuilder.unionAll(selects.get(0), selects.subList(1, selects.size()).toArray(CriteriaQuery[]::new));
+        return entityManager.createQuery(union).getResultList();
+    }
+
+    @Override
+    public List<Object[]> findNearbyHospitals(double latitude, double longitude, double radiusKm,
+                                              List<GeoCell.Range> cells,
+                                              double minLatitude, double maxLatitude,
+                                              double minLongitude, double maxLongitude,
+                                              int minBeds, String category, String emergencyService,
+                                              int limit, long offset) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT nearby.id, nearby.distance_km FROM (" + nearbySql(cells) + ") nearby " +
+                "WHERE nearby.distance_km <= :radiusKm " +
+                "ORDER BY nearby.distance_km, nearby.id " +
+                "LIMIT :limit OFFSET :offset");
+        bindNearby(query, latitude, longitude, radiusKm, cells, minLatitude, maxLatitude,
+                minLongitude, maxLongitude, minBeds, category, emergencyService);
+        query.setParameter("limit", limit);
+        query.setParameter("offset", offset);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    @Override
+    public long countNearbyHospitals(double latitude, double longitude, double radiusKm,
+                                     List<GeoCell.Range> cells,
+                                     double minLatitude, double maxLatitude,
+                                     double minLongitude, double maxLongitude,
+                                     int minBeds, String category, String emergencyService) {
+        Query query = entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM (" + nearbySql(cells) + ") nearby " +
+                "WHERE nearby.distance_km <= :radiusKm");
+        bindNearby(query, latitude, longitude, radiusKm, cells, minLatitude, maxLatitude,
+                minLongitude, maxLongitude, minBeds, category, emergencyService);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    // One indexable range predicate per covering cell range, then the remaining filters
+    private static String nearbySql(List<GeoCell.Range> cells) {
+        StringBuilder sql = new StringBuilder("SELECT h.id AS id, ")
+                .append(DISTANCE_KM).append(" AS distance_km FROM hospitals h WHERE (");
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                sql.append(" OR ");
+            }
+            sql.append("h.geo_cell BETWEEN :cellFrom").append(i).append(" AND :cellTo").append(i);
+        }
+        return sql.append(") ").append(NEARBY_FILTERS).toString();
+    }
+
+    private static void bindNearby(Query query, double latitude, double longitude, double radiusKm,
+                                   List<GeoCell.Range> cells,
+                                   double minLatitude, double maxLatitude,
+                                   double minLongitude, double maxLongitude,
+                                   int minBeds, String category, String emergencyService) {
+        query.setParameter("latitude", latitude);
+        query.setParameter("longitude", longitude);
+        query.setParameter("radiusKm", radiusKm);
+        for (int i = 0; i < cells.size(); i++) {
+            query.setParameter("cellFrom" + i, cells.get(i).from());
+            query.setParameter("cellTo" + i, cells.get(i).to());
+        }
+        query.setParameter("minLatitude", minLatitude);
+        query.setParameter("maxLatitude", maxLatitude);
+        query.setParameter("minLongitude", minLongitude);
+        query.setParameter("maxLongitude", maxLongitude);
+        query.setParameter("minBeds", minBeds);
+        query.setParameter("category", category);
+        query.setParameter("emergencyService", emergencyService);
+    }
+
+    // Not named count: Spring Data would route the repository's own count(Specification) here
+    private long countMatching(Specification<Hospital> specification) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Hospital> root = query.from(Hospital.class);
+        query.select(criteriaBuilder.count(root));
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static List<Selection<?>> selections(Root<Hospital> root, List<String> fields) {
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        return selections;
+    }
+
+    private static List<Map<String, Object>> toMaps(List<Tuple> tuples, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> withId(List<String> fields) {
+        List<String> selected = new ArrayList<>(fields.size() + 1);
+        selected.add("id");
+        selected.addAll(fields);
+        return selected;
+    }
+}
@@ -0,0 +1,53 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.index.GeoCell;
+import com.lifeline.openicu.repository.HospitalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Derives the geo cell of hospitals that were stored without one. Hospitals saved
+ * through JPA get their cell on save and the SQL import script computes it for the rows
+ * it loads; rows written before the column existed are filled in here once the
+ * application has started.
+ */
+@Component
+public class GeoCellBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoCellBackfill.class);
+
+    // Plain SQL, so updated_at is left alone
+    private static final String UPDATE_SQL = "UPDATE hospitals SET geo_cell = ? WHERE id = ?";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final HospitalRepository hospitalRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public GeoCellBackfill(HospitalRepository hospitalRepository, JdbcTemplate jdbcTemplate) {
+        this.hospitalRepository = hospitalRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        List<Object[]> rows = hospitalRepository.findCoordinatesWithoutGeoCell();
+        if (rows.isEmpty()) {
+            return;
+        }
+        // Sent as JDBC batches rather than one round trip per hospital
+        jdbcTemplate.batchUpdate(UPDATE_SQL, rows, BATCH_SIZE, (statement, row) -> {
+            statement.setLong(1, GeoCell.encode((Double) row[1], (Double) row[2]));
+            statement.setLong(2, (Long) row[0]);
+        });
+        logger.info("Derived geo cells for {} hospitals", rows.size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Continuation token for keyset pagination over hospitals: the sort field, direction and
+ * the (sort key, id) of the last hospital returned. Encoded as opaque URL-safe Base64 so
+ * clients pass it back unchanged.
+ */
+final class HospitalCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String sortField;
+    private final boolean ascending;
+    private final Comparable<?> key;
+    private final Long id;
+
+    HospitalCursor(String sortField, boolean ascending, Comparable<?> key, Long id) {
+        this.sortField = sortField;
+        this.ascending = ascending;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Cursor positioned after the given hospital.
+     */
+    static HospitalCursor after(Hospital hospital, String sortField, boolean ascending) {
+        return new HospitalCursor(sortField, ascending, keyOf(hospital, sortField), hospital.getId());
+    }
+
+    /**
+     * Sort key of a hospital as compared by the keyset query; null if the field is unset.
+     */
+    static Comparable<?> keyOf(Hospital hospital, String sortField) {
+        switch (sortField) {
+            case "name":
+                return hospital.getName();
+            case "state":
+                return hospital.getState();
+            case "district":
+                return hospital.getDistrict();
+            case "totalNumBeds":
+                return hospital.getTotalNumBeds();
+            case "createdAt":
+                return hospital.getCreatedAt();
+            case "updatedAt":
+                return hospital.getUpdatedAt();
+            default:
+                throw new InvalidSearchCriteriaException("Unsupported cursor sort field: " + sortField);
+        }
+    }
+
+    String encode() {
+        // A null key is left out entirely so it cannot be confused with an empty one
+        String raw = sortField + SEPARATOR + (ascending ? "A" : "D") + SEPARATOR + id
+            + (key != null ? SEPARATOR + key.toString() : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token and check it was issued for the same sort.
+     *
+     * @throws InvalidSearchCriteriaException if the token is malformed or was issued for a different sort
+     */
+    static HospitalCursor decode(String token, String sortField, boolean ascending) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The key comes last, so separators inside it are left alone
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCriteriaException("Invalid cursor");
+        }
+        if (parts.length < 3) {
+            throw new InvalidSearchCriteriaException("Invalid cursor");
+        }
+        if (!parts[0].equals(sortField) || !parts[1].equals(ascending ? "A" : "D")) {
+            throw new InvalidSearchCriteriaException("Cursor was issued for a different sort order");
+        }
+
+        try {
+            Long id = Long.valueOf(parts[2]);
+            Comparable<?> key;
+            if (parts.length == 3) {
+                return new HospitalCursor(sortField, ascending, null, id);
+            }
+            switch (sortField) {
+                case "totalNumBeds":
+                    key = Integer.valueOf(parts[3]);
+                    break;
+                case "createdAt":
+                case "updatedAt":
+                    key = LocalDateTime.parse(parts[3]);
+                    break;
+                default:
+                    key = parts[3];
+            }
+            return new HospitalCursor(sortField, ascending, key, id);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidSearchCriteriaException("Invalid cursor");
+        }
+    }
+
+    Comparable<?> key() {
+        return key;
+    }
+
+    Long id() {
+        return id;
+    }
+}
@@ -0,0 +1,75 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.HospitalKeywordIndex;
+import com.lifeline.openicu.index.HospitalProfileIndex;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import com.lifeline.openicu.index.HospitalSuggestIndex;
+import com.lifeline.openicu.index.HospitalTagIndex;
+import com.lifeline.openicu.index.HospitalTileIndex;
+import com.lifeline.openicu.realtime.hospital.HospitalSnapshotCache;
+import com.lifeline.openicu.repository.HospitalRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds the in-memory hospital indexes and caches at startup from a single read of the
+ * hospitals table, instead of each of them loading every hospital on its own. After
+ * startup they are kept current from hospital change events.
+ */
+@Component
+public class HospitalIndexLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalIndexLoader.class);
+
+    private final HospitalRepository hospitalRepository;
+    private final HospitalSpatialIndex hospitalSpatialIndex;
+    private final HospitalKeywordIndex hospitalKeywordIndex;
+    private final HospitalSuggestIndex hospitalSuggestIndex;
+    private final HospitalTagIndex hospitalTagIndex;
+    private final HospitalProfileIndex hospitalProfileIndex;
+    private final HospitalTileIndex hospitalTileIndex;
+    private final HospitalSearchCache hospitalSearchCache;
+    private final HospitalSnapshotCache hospitalSnapshotCache;
+
+    public HospitalIndexLoader(HospitalRepository hospitalRepository,
+                               HospitalSpatialIndex hospitalSpatialIndex,
+                               HospitalKeywordIndex hospitalKeywordIndex,
+                               HospitalSuggestIndex hospitalSuggestIndex,
+                               HospitalTagIndex hospitalTagIndex,
+                               HospitalProfileIndex hospitalProfileIndex,
+                               HospitalTileIndex hospitalTileIndex,
+                               HospitalSearchCache hospitalSearchCache,
+                               HospitalSnapshotCache hospitalSnapshotCache) {
+        this.hospitalRepository = hospitalRepository;
+        this.hospitalSpatialIndex = hospitalSpatialIndex;
+        this.hospitalKeywordIndex = hospitalKeywordIndex;
+        this.hospitalSuggestIndex = hospitalSuggestIndex;
+        this.hospitalTagIndex = hospitalTagIndex;
+        this.hospitalProfileIndex = hospitalProfileIndex;
+        this.hospitalTileIndex = hospitalTileIndex;
+        this.hospitalSearchCache = hospitalSearchCache;
+        this.hospitalSnapshotCache = hospitalSnapshotCache;
+    }
+
+    /**
+     * Read every hospital once and hand the list to each index.
+     */
+    @PostConstruct
+    public void load() {
+        List<Hospital> hospitals = hospitalRepository.findAll();
+        hospitalSpatialIndex.load(hospitals);
+        hospitalKeywordIndex.load(hospitals);
+        hospitalSuggestIndex.load(hospitals);
+        hospitalTagIndex.load(hospitals);
+        hospitalProfileIndex.load(hospitals);
+        hospitalTileIndex.load(hospitals);
+        hospitalSearchCache.load(hospitals);
+        hospitalSnapshotCache.load(hospitals);
+        logger.info("Hospital indexes loaded from {} hospitals", hospitals.size());
+    }
+}
@@ -0,0 +1,282 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.config.SearchCacheProperties;
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.HospitalTagIndex;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of hospital search result pages, keyed on the normalised search criteria,
+ * the page request and, for sparse fieldset searches, the selected fields. Entries are
+ * evicted least recently used first once the cache is full, and expire after a fixed time.
+ * A hospital change only invalidates the cached searches that hospital could affect: those
+ * it matched before or after the change, and pages it appears on. The search-relevant
+ * fields of every hospital are kept so that the state before a change is known.
+ */
+@Component
+public class HospitalSearchCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(HospitalSearchCache.class);
+
+    private final SearchCacheProperties properties;
+
+    private final Map<Long, SearchView> views = new ConcurrentHashMap<>();
+
+    // Access-ordered, so the eldest entry is the least recently used; guarded by this
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > properties.getMaxEntries()) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Bumped on every invalidation, so a search that overlapped a change is not cached
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    public HospitalSearchCache(SearchCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Load the search-relevant fields of every hospital.
+     *
+     * @param hospitals every hospital, as read once at startup by HospitalIndexLoader
+     */
+    public void load(List<Hospital> hospitals) {
+        for (Hospital hospital : hospitals) {
+            views.put(hospital.getId(), SearchView.of(hospital));
+        }
+        logger.info("Hospital search cache ready: {} hospitals tracked, up to {} entries for {}",
+                views.size(), properties.getMaxEntries(), properties.getTtl());
+    }
+
+    /**
+     * Return the cached page for a search, or run the search and cache its result.
+     *
+     * @param criteria the search criteria
+     * @param pageable the page request
+     * @param search runs the search on a miss
+     */
+    public Page<HospitalResponseDTO> get(HospitalSearchCriteria criteria, Pageable pageable,
+                                         Supplier<Page<HospitalResponseDTO>> search) {
+        return get(Key.of(criteria, pageable, null), search, HospitalResponseDTO::getId);
+    }
+
+    /**
+     * Return the cached page for a sparse fieldset search, or run the search and cache its
+     * result. Each set of fields is cached separately.
+     *
+     * @param criteria the search criteria
+     * @param pageable the page request
+     * @param fields the selected fields, including id
+     * @param search runs the search on a miss
+     */
+    public Page<Map<String, Object>> get(HospitalSearchCriteria criteria, Pageable pageable, List<String> fields,
+                                         Supplier<Page<Map<String, Object>>> search) {
+        return get(Key.of(criteria, pageable, List.copyOf(fields)), search, row -> (Long) row.get("id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Page<T> get(Key key, Supplier<Page<T>> search, Function<T, Long> idOf) {
+        if (!properties.isEnabled()) {
+            return search.get();
+        }
+
+        long startGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAtNanos() - System.nanoTime() > 0) {
+                    hits++;
+                    // The key's fields decide the row type, so the cast holds
+                    return (Page<T>) entry.page();
+                }
+                entries.remove(key);
+                expirations++;
+            }
+            misses++;
+            startGeneration = generation;
+        }
+
+        Page<T> page = search.get();
+
+        synchronized (this) {
+            if (generation == startGeneration) {
+                Set<Long> hospitalIds = new HashSet<>();
+                for (T hospital : page.getContent()) {
+                    hospitalIds.add(idOf.apply(hospital));
+                }
+                entries.put(key, new Entry(page, hospitalIds, System.nanoTime() + properties.getTtl().toNanos()));
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Drop the cached searches a created or updated hospital could affect. The event is
+     * raised after the change commits; a search that started before it finds the
+     * generation moved on and is not cached.
+     */
+    @EventListener
+    public void onHospitalChanged(HospitalChangedEvent event) {
+        SearchView after = SearchView.of(event.hospital());
+        SearchView before = views.put(after.id(), after);
+        invalidate(before, after);
+    }
+
+    /**
+     * Counters for monitoring: entries currently cached, hits, misses, LRU evictions,
+     * TTL expirations and entries dropped by hospital changes.
+     */
+    public synchronized Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("expirations", expirations);
+        stats.put("invalidations", invalidations);
+        return stats;
+    }
+
+    private synchronized void invalidate(SearchView before, SearchView after) {
+        generation++;
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> cached = iterator.next();
+            Key key = cached.getKey();
+            if (cached.getValue().hospitalIds().contains(after.id())
+                    || key.matches(after)
+                    || (before != null && key.matches(before))) {
+                iterator.remove();
+                invalidations++;
+            }
+        }
+    }
+
+    private record Entry(Page<?> page, Set<Long> hospitalIds, long expiresAtNanos) {
+    }
+
+    /**
+     * Lower-cased copy of the fields the search filters on.
+     */
+    private record SearchView(Long id, String name, String location, String state, String district,
+                              String address, String category, String careType, Integer totalNumBeds,
+                              List<String> specialties, List<String> facilities,
+                              List<String> emergencyServices) {
+
+        static SearchView of(Hospital hospital) {
+            return new SearchView(
+                    hospital.getId(),
+                    lower(hospital.getName()),
+                    lower(hospital.getLocation()),
+                    lower(hospital.getState()),
+                    lower(hospital.getDistrict()),
+                    lower(hospital.getAddress()),
+                    lower(hospital.getHospitalCategory()),
+                    lower(hospital.getHospitalCareType()),
+                    hospital.getTotalNumBeds(),
+                    HospitalTagIndex.tags(hospital.getSpecialties()),
+                    HospitalTagIndex.tags(hospital.getFacilities()),
+                    HospitalTagIndex.tags(hospital.getEmergencyServices()));
+        }
+    }
+
+    /**
+     * Normalised search criteria plus page request and selected fields (null for full
+     * hospitals). Blank filters are dropped and tag lists are sorted, so equivalent
+     * searches share an entry.
+     */
+    private record Key(String keyword, String state, String district, String category, String careType,
+                       Integer minBeds, List<String> specialties, List<String> facilities,
+                       List<String> emergencyServices, int page, int size, String sort,
+                       List<String> fields) {
+
+        static Key of(HospitalSearchCriteria criteria, Pageable pageable, List<String> fields) {
+            return new Key(
+                    filter(criteria.getKeyword()),
+                    filter(criteria.getState()),
+                    filter(criteria.getDistrict()),
+                    filter(criteria.getCategory()),
+                    filter(criteria.getCareType()),
+                    criteria.getMinBeds(),
+                    sortedTags(criteria.getSpecialty()),
+                    sortedTags(criteria.getFacility()),
+                    sortedTags(criteria.getEmergencyService()),
+                    pageable.isPaged() ? pageable.getPageNumber() : -1,
+                    pageable.isPaged() ? pageable.getPageSize() : -1,
+                    pageable.getSort().toString(),
+                    fields);
+        }
+
+        // Same semantics as the search itself: substring filters, exact tags
+        boolean matches(SearchView hospital) {
+            if (keyword != null && !(contains(hospital.name(), keyword) || contains(hospital.location(), keyword)
+                    || contains(hospital.state(), keyword) || contains(hospital.district(), keyword)
+                    || contains(hospital.address(), keyword))) {
+                return false;
+            }
+            if ((state != null && !contains(hospital.state(), state))
+                    || (district != null && !contains(hospital.district(), district))
+                    || (category != null && !contains(hospital.category(), category))
+                    || (careType != null && !contains(hospital.careType(), careType))) {
+                return false;
+            }
+            if (minBeds != null && (hospital.totalNumBeds() == null || hospital.totalNumBeds() < minBeds)) {
+                return false;
+            }
+            return hospital.specialties().containsAll(specialties)
+                    && hospital.facilities().containsAll(facilities)
+                    && hospital.emergencyServices().containsAll(emergencyServices);
+        }
+
+        private static boolean contains(String field, String term) {
+            return field != null && field.contains(term);
+        }
+
+        private static String filter(String value) {
+            return value == null || value.trim().isEmpty() ? null : value.toLowerCase(Locale.ROOT);
+        }
+
+        private static List<String> sortedTags(String value) {
+            List<String> tags = new ArrayList<>(HospitalTagIndex.tags(value));
+            Collections.sort(tags);
+            return tags;
+        }
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,40 +1,91 @@
 package com.lifeline.openicu.service;
 
 import com.lifeline.openicu.dto.HospitalCreateDTO;
+import com.lifeline.openicu.dto.HospitalCursorPage;
 import com.lifeline.openicu.dto.HospitalResponseDTO;
 import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import com.lifeline.openicu.dto.HospitalSuggestionDTO;
+import com.lifeline.openicu.dto.HospitalTileDTO;
+import com.lifeline.openicu.dto.HospitalTileFeatureDTO;
 import com.lifeline.openicu.dto.NearbyHospitalRequest;
 import com.lifeline.openicu.dto.NearbyHospitalResponse;
 import com.lifeline.openicu.entity.Hospital;
 import com.lifeline.openicu.exception.HospitalNotFoundException;
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+import com.lifeline.openicu.index.GeoBox;
+import com.lifeline.openicu.index.GeoCell;
+import com.lifeline.openicu.index.HospitalKeywordIndex;
+import com.lifeline.openicu.index.HospitalSuggestIndex;
+import com.lifeline.openicu.index.HospitalTagIndex;
+import com.lifeline.openicu.index.HospitalTileIndex;
 import com.lifeline.openicu.realtime.hospital.HospitalEventPublisher;
+import com.lifeline.openicu.realtime.outbox.RealtimeOutbox;
 import com.lifeline.openicu.repository.HospitalRepository;
 import com.lifeline.openicu.specification.HospitalSpecification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigInteger;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class HospitalService {
 
+    // Above this many keyword or tag matches an IN list is no cheaper than the LIKE scan
+    private static final int MAX_FILTER_IDS = 2000;
+
+    // Attributes counted by getFacets, in one UNION ALL query
+    private static final List<String> FACET_ATTRIBUTES =
+        List.of("state", "district", "hospitalCategory", "hospitalCareType", "town");
+
+    // Fields a client may request with fields=; every response property maps to a column
+    private static final Set<String> SPARSE_FIELDS = Arrays.stream(HospitalResponseDTO.class.getDeclaredFields())
+        .filter(field -> !Modifier.isStatic(field.getModifiers()))
+        .map(Field::getName)
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+
     private final HospitalRepository hospitalRepository;
     private final HospitalEventPublisher eventPublisher;
+    private final HospitalKeywordIndex hospitalKeywordIndex;
+    private final HospitalSuggestIndex hospitalSuggestIndex;
+    private final HospitalTagIndex hospitalTagIndex;
+    private final HospitalSearchCache hospitalSearchCache;
+    private final HospitalTileIndex hospitalTileIndex;
+    private final RealtimeOutbox realtimeOutbox;
 
     public HospitalService(HospitalRepository hospitalRepository,
-                          HospitalEventPublisher eventPublisher) {
+                          HospitalEventPublisher eventPublisher,
+                          HospitalKeywordIndex hospitalKeywordIndex,
+                          HospitalSuggestIndex hospitalSuggestIndex,
+                          HospitalTagIndex hospitalTagIndex,
+                          HospitalSearchCache hospitalSearchCache,
+                          HospitalTileIndex hospitalTileIndex,
+                          RealtimeOutbox realtimeOutbox) {
         this.hospitalRepository = hospitalRepository;
         this.eventPublisher = eventPublisher;
+        this.hospitalKeywordIndex = hospitalKeywordIndex;
+        this.hospitalSuggestIndex = hospitalSuggestIndex;
+        this.hospitalTagIndex = hospitalTagIndex;
+        this.hospitalSearchCache = hospitalSearchCache;
+        this.hospitalTileIndex = hospitalTileIndex;
+        this.realtimeOutbox = realtimeOutbox;
     }
 
     public HospitalResponseDTO createHospital(HospitalCreateDTO createDTO) {
@@ -60,6 +111,40 @@ public class HospitalService {
         return convertToPageDTO(hospitalPage);
     }
 
+    /**
+     * Page of hospitals with only the requested fields selected and returned.
+     */
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> getAllHospitals(Pageable pageable, List<String> fields) {
+        return hospitalRepository.findAllFields(null, pageable, fields);
+    }
+
+    /**
+     * Parse a sparse fieldset parameter such as "name,latitude,longitude".
+     * Any HospitalResponseDTO property may be requested; id is always included.
+     *
+     * @param fields comma-separated field names
+     * @return the fields to select, id first, without duplicates
+     * @throws InvalidSearchCriteriaException if a field is unknown
+     */
+    public List<String> parseFields(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!SPARSE_FIELDS.contains(name)) {
+                throw new InvalidSearchCriteriaException(
+                    String.format("Invalid field '%s'. Valid fields are: %s", name, String.join(", ", SPARSE_FIELDS))
+                );
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+
     @Transactional(readOnly = true)
     public HospitalResponseDTO getHospitalById(Long id) {
         Hospital hospital = hospitalRepository.findById(id)
@@ -80,29 +165,232 @@ public class HospitalService {
         return convertToDTO(updatedHospital);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Search hospitals; repeated searches are served from the search cache. Runs outside a
+     * transaction so that a cache hit takes no database connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Page<HospitalResponseDTO> searchHospitals(HospitalSearchCriteria criteria, Pageable pageable) {
-        // Build composite specification from all criteria using AND logic
-        Specification<Hospital> specification = Specification.where(
-            HospitalSpecification.searchByKeyword(criteria.getKeyword())
-        )
+        return hospitalSearchCache.get(criteria, pageable, () -> {
+            Specification<Hospital> specification = buildSearchSpecification(criteria);
+            if (specification == null) {
+                return Page.empty(pageable);
+            }
+            
+            // Execute query with combined specifications
+            Page<Hospital> hospitalPage = hospitalRepository.findAll(specification, pageable);
+            
+            return convertToPageDTO(hospitalPage);
+        });
+    }
+    
+    /**
+     * Search returning only the requested fields of each hospital; repeated searches are
+     * served from the search cache without a transaction.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Page<Map<String, Object>> searchHospitals(HospitalSearchCriteria criteria, Pageable pageable,
+                                                     List<String> fields) {
+        return hospitalSearchCache.get(criteria, pageable, fields, () -> {
+            Specification<Hospital> specification = buildSearchSpecification(criteria);
+            if (specification == null) {
+                return Page.empty(pageable);
+            }
+            return hospitalRepository.findAllFields(specification, pageable, fields);
+        });
+    }
+    
+    /**
+     * Keyset (cursor) pagination over all hospitals, or over those matching the criteria.
+     * Each page seeks past the (sort key, id) of the previous page's last hospital instead of
+     * skipping an offset, so deep pages cost the same as the first. The total count is only
+     * queried when asked for.
+     *
+     * @param criteria search criteria, or null for all hospitals
+     * @param sortField one of the whitelisted sort fields
+     * @param direction sort direction
+     * @param cursor continuation token from the previous page, or null/empty for the first page
+     * @param size page size
+     * @param includeTotal whether to also count all matching hospitals
+     */
+    @Transactional(readOnly = true)
+    public HospitalCursorPage scrollHospitals(HospitalSearchCriteria criteria, String sortField,
+                                              Sort.Direction direction, String cursor, int size,
+                                              boolean includeTotal) {
+        boolean ascending = direction.isAscending();
+        Specification<Hospital> filter = criteria != null
+            ? buildSearchSpecification(criteria)
+            : Specification.where(null);
+        if (filter == null) {
+            return new HospitalCursorPage(List.of(), size, false, null, includeTotal ? 0L : null);
+        }
+        
+        Specification<Hospital> specification = filter
+            .and(HospitalSpecification.orderedForKeyset(sortField, ascending));
+        if (cursor != null && !cursor.isEmpty()) {
+            HospitalCursor position = HospitalCursor.decode(cursor, sortField, ascending);
+            specification = specification
+                .and(HospitalSpecification.seekAfter(sortField, ascending, position.key(), position.id()));
+        }
+        
+        // One extra row tells whether there is a next page without counting
+        List<Hospital> hospitals = hospitalRepository.findBy(specification, query -> query.limit(size + 1).all());
+        boolean hasNext = hospitals.size() > size;
+        if (hasNext) {
+            hospitals = hospitals.subList(0, size);
+        }
+        
+        String nextCursor = hasNext
+            ? HospitalCursor.after(hospitals.get(hospitals.size() - 1), sortField, ascending).encode()
+            : null;
+        Long totalElements = includeTotal ? hospitalRepository.count(filter) : null;
+        
+        List<HospitalResponseDTO> content = hospitals.stream()
+            .map(this::convertToDTO)
+            .collect(Collectors.toList());
+        return new HospitalCursorPage(content, size, hasNext, nextCursor, totalElements);
+    }
+    
+    /**
+     * Combine all search criteria with AND logic.
+     *
+     * @return the specification, or null if the keyword matches no hospital at all
+     */
+    private Specification<Hospital> buildSearchSpecification(HospitalSearchCriteria criteria) {
+        // Specialty, facility and emergency service tags resolve to ids through bitset ANDs
+        Set<Long> ids = hospitalTagIndex.matching(
+            criteria.getSpecialty(), criteria.getFacility(), criteria.getEmergencyService());
+        if (ids != null && ids.isEmpty()) {
+            return null;
+        }
+        
+        // Resolve the keyword to hospital ids from the in-memory index instead of a LIKE scan
+        String keyword = criteria.getKeyword();
+        if (keyword != null && !keyword.trim().isEmpty()) {
+            Set<Long> keywordIds = hospitalKeywordIndex.search(keyword);
+            if (ids != null) {
+                keywordIds.retainAll(ids);
+            }
+            if (keywordIds.isEmpty()) {
+                return null;
+            }
+            ids = keywordIds;
+        }
+        
+        // Too many ids for one IN list: filter in SQL instead, as for an unindexed search
+        Specification<Hospital> idSpecification;
+        if (ids == null) {
+            idSpecification = null;
+        } else if (ids.size() <= MAX_FILTER_IDS) {
+            idSpecification = HospitalSpecification.hasIdIn(ids);
+        } else {
+            idSpecification = Specification.where(HospitalSpecification.searchByKeyword(keyword));
+            for (String tag : HospitalTagIndex.tags(criteria.getSpecialty())) {
+                idSpecification = idSpecification.and(HospitalSpecification.hasSpecialty(tag));
+            }
+            for (String tag : HospitalTagIndex.tags(criteria.getFacility())) {
+                idSpecification = idSpecification.and(HospitalSpecification.hasFacility(tag));
+            }
+            for (String tag : HospitalTagIndex.tags(criteria.getEmergencyService())) {
+                idSpecification = idSpecification.and(HospitalSpecification.hasEmergencyService(tag));
+            }
+        }
+        
+        return Specification.where(idSpecification)
         .and(HospitalSpecification.hasState(criteria.getState()))
         .and(HospitalSpecification.hasDistrict(criteria.getDistrict()))
         .and(HospitalSpecification.hasCategory(criteria.getCategory()))
         .and(HospitalSpecification.hasCareType(criteria.getCareType()))
-        .and(HospitalSpecification.hasMinimumBeds(criteria.getMinBeds()))
-        .and(HospitalSpecification.hasEmergencyService(criteria.getEmergencyService()))
-        .and(HospitalSpecification.hasSpecialty(criteria.getSpecialty()))
-        .and(HospitalSpecification.hasFacility(criteria.getFacility()));
+        .and(HospitalSpecification.hasMinimumBeds(criteria.getMinBeds()));
+    }
+    
+    /**
+     * Typeahead suggestions served entirely from the in-memory suggest index.
+     * Runs outside a transaction so that no database connection is taken.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<HospitalSuggestionDTO> suggestHospitals(String prefix, int limit) {
+        List<HospitalSuggestIndex.Suggestion> suggestions = hospitalSuggestIndex.suggest(prefix, limit);
+        List<HospitalSuggestionDTO> results = new ArrayList<>(suggestions.size());
+        for (HospitalSuggestIndex.Suggestion suggestion : suggestions) {
+            results.add(new HospitalSuggestionDTO(
+                suggestion.id(),
+                suggestion.name(),
+                suggestion.district(),
+                suggestion.town(),
+                suggestion.totalNumBeds()
+            ));
+        }
+        return results;
+    }
+    
+    /**
+     * Map tile of the hospital layer, served from the in-memory tile index.
+     * Runs outside a transaction so that no database connection is taken.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public HospitalTileDTO getHospitalTile(int zoom, int x, int y) {
+        HospitalTileIndex.Tile tile = hospitalTileIndex.tile(zoom, x, y);
+        List<HospitalTileFeatureDTO> features = new ArrayList<>(tile.features().size());
+        for (HospitalTileIndex.Feature feature : tile.features()) {
+            features.add(new HospitalTileFeatureDTO(
+                feature.id(),
+                feature.name(),
+                feature.count(),
+                feature.latitude(),
+                feature.longitude(),
+                feature.availableIcuBeds()
+            ));
+        }
+        return new HospitalTileDTO(tile.zoom(), tile.x(), tile.y(), tile.clustered(), features);
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<NearbyHospitalResponse> findNearbyHospitals(NearbyHospitalRequest request, Pageable pageable) {
+        Page<Object[]> rows = findNearbyRows(request, pageable);
         
-        // Execute query with combined specifications
-        Page<Hospital> hospitalPage = hospitalRepository.findAll(specification, pageable);
+        // Load the page's hospitals in one round trip
+        Map<Long, Hospital> hospitalsById = new HashMap<>();
+        for (Hospital hospital : hospitalRepository.findAllById(nearbyIds(rows))) {
+            hospitalsById.put(hospital.getId(), hospital);
+        }
         
-        return convertToPageDTO(hospitalPage);
+        List<NearbyHospitalResponse> pageContent = new ArrayList<>(rows.getNumberOfElements());
+        for (Object[] row : rows) {
+            Hospital hospital = hospitalsById.get(((Number) row[0]).longValue());
+            if (hospital != null) {
+                pageContent.add(new NearbyHospitalResponse(convertToDTO(hospital), ((Number) row[1]).doubleValue()));
+            }
+        }
+        
+        return new PageImpl<>(pageContent, pageable, rows.getTotalElements());
     }
     
+    /**
+     * Nearby search returning only the requested fields of each hospital, plus distanceKm.
+     */
     @Transactional(readOnly = true)
-    public Page<NearbyHospitalResponse> findNearbyHospitals(NearbyHospitalRequest request, Pageable pageable) {
+    public Page<Map<String, Object>> findNearbyHospitals(NearbyHospitalRequest request, Pageable pageable,
+                                                         List<String> fields) {
+        Page<Object[]> rows = findNearbyRows(request, pageable);
+        Map<Long, Map<String, Object>> hospitalsById = hospitalRepository.findFieldsByIdIn(nearbyIds(rows), fields);
+        
+        List<Map<String, Object>> pageContent = new ArrayList<>(rows.getNumberOfElements());
+        for (Object[] row : rows) {
+            Map<String, Object> hospital = hospitalsById.get(((Number) row[0]).longValue());
+            if (hospital != null) {
+                hospital.put("distanceKm", ((Number) row[1]).doubleValue());
+                pageContent.add(hospital);
+            }
+        }
+        
+        return new PageImpl<>(pageContent, pageable, rows.getTotalElements());
+    }
+    
+    /**
+     * Page of [hospital id, distance km] rows for a nearby search, nearest first.
+     */
+    private Page<Object[]> findNearbyRows(NearbyHospitalRequest request, Pageable pageable) {
         // Validate coordinates and radius
         if (request.getLatitude() == null || request.getLongitude() == null || request.getRadiusKm() == null) {
             throw new IllegalArgumentException("Latitude, longitude, and radius are required");
@@ -112,118 +400,43 @@ public class HospitalService {
             throw new IllegalArgumentException("Radius must be between 0.1 and 500 kilometers");
         }
         
-        // Call repository native query
-        List<Object[]> results = hospitalRepository.findNearbyHospitals(
-            request.getLatitude(),
-            request.getLongitude(),
-            request.getRadiusKm()
-        );
+        // Bounding box around the search circle, covered by geo cell ranges for the index
+        double latitude = request.getLatitude();
+        double longitude = request.getLongitude();
+        double radiusKm = request.getRadiusKm();
+        GeoBox box = GeoBox.around(latitude, longitude, radiusKm);
+        List<GeoCell.Range> cells = box.cells();
+        double minLatitude = box.minLatitude();
+        double maxLatitude = box.maxLatitude();
+        double minLongitude = box.minLongitude();
+        double maxLongitude = box.maxLongitude();
         
-        // Parse Object[] results into NearbyHospitalResponse DTOs
-        List<NearbyHospitalResponse> nearbyHospitals = new ArrayList<>();
+        // Absent filters are passed as -1 / '' so the same statement serves every combination
+        int minBeds = request.getMinBeds() != null ? request.getMinBeds() : -1;
+        String category = request.getCategory() != null ? request.getCategory() : "";
+        String emergencyService = request.getEmergencyService() != null ? request.getEmergencyService() : "";
         
-        for (Object[] row : results) {
-            // Parse hospital data from Object array
-            Hospital hospital = parseHospitalFromRow(row);
-            
-            // Get distance (last column in the result)
-            Double distance = ((Number) row[row.length - 1]).doubleValue();
-            
-            // Apply additional filters if provided
-            boolean passesFilters = true;
-            
-            if (request.getMinBeds() != null && hospital.getTotalNumBeds() != null) {
-                if (hospital.getTotalNumBeds() < request.getMinBeds()) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (request.getCategory() != null && hospital.getHospitalCategory() != null) {
-                if (!hospital.getHospitalCategory().equalsIgnoreCase(request.getCategory())) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (request.getEmergencyService() != null && hospital.getEmergencyServices() != null) {
-                if (!hospital.getEmergencyServices().toLowerCase().contains(request.getEmergencyService().toLowerCase())) {
-                    passesFilters = false;
-                }
-            }
-            
-            if (passesFilters) {
-                HospitalResponseDTO hospitalDTO = convertToDTO(hospital);
-                NearbyHospitalResponse nearbyResponse = new NearbyHospitalResponse(hospitalDTO, distance);
-                nearbyHospitals.add(nearbyResponse);
-            }
+        long total = hospitalRepository.countNearbyHospitals(latitude, longitude, radiusKm, cells,
+            minLatitude, maxLatitude, minLongitude, maxLongitude, minBeds, category, emergencyService);
+        if (total == 0 || pageable.getOffset() >= total) {
+            return new PageImpl<>(List.of(), pageable, total);
         }
         
-        // Apply pagination to results
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), nearbyHospitals.size());
-        
-        List<NearbyHospitalResponse> pageContent = nearbyHospitals.subList(start, end);
-        
-        return new PageImpl<>(pageContent, pageable, nearbyHospitals.size());
+        // Filtering, distance ordering and paging all happen in the database
+        List<Object[]> rows = hospitalRepository.findNearbyHospitals(latitude, longitude, radiusKm, cells,
+            minLatitude, maxLatitude, minLongitude, maxLongitude, minBeds, category, emergencyService,
+            pageable.getPageSize(), pageable.getOffset());
+        return new PageImpl<>(rows, pageable, total);
     }
     
-    /**
-     * Parse Hospital entity from native query result row
-     */
-    private Hospital parseHospitalFromRow(Object[] row) {
-        Hospital hospital = new Hospital();
-        
-        int i = 0;
-        hospital.setId(((BigInteger) row[i++]).longValue());
-        hospital.setName((String) row[i++]);
-        hospital.setAddress((String) row[i++]);
-        hospital.setPhoneNumber((String) row[i++]);
-        hospital.setEmail((String) row[i++]);
-        hospital.setLatitude(row[i] != null ? ((Number) row[i]).doubleValue() : null); i++;
-        hospital.setLongitude(row[i] != null ? ((Number) row[i]).doubleValue() : null); i++;
-        hospital.setLocation((String) row[i++]);
-        hospital.setHospitalCategory((String) row[i++]);
-        hospital.setHospitalCareType((String) row[i++]);
-        hospital.setDisciplineSystemsOfMedicine((String) row[i++]);
-        hospital.setState((String) row[i++]);
-        hospital.setDistrict((String) row[i++]);
-        hospital.setSubdistrict((String) row[i++]);
-        hospital.setPincode((String) row[i++]);
-        hospital.setTelephone((String) row[i++]);
-        hospital.setMobileNumber((String) row[i++]);
-        hospital.setEmergencyNum((String) row[i++]);
-        hospital.setAmbulancePhoneNo((String) row[i++]);
-        hospital.setBloodbankPhoneNo((String) row[i++]);
-        hospital.setTollfree((String) row[i++]);
-        hospital.setHelpline((String) row[i++]);
-        hospital.setHospitalFax((String) row[i++]);
-        hospital.setHospitalSecondaryEmailId((String) row[i++]);
-        hospital.setWebsite((String) row[i++]);
-        hospital.setSpecialties((String) row[i++]);
-        hospital.setFacilities((String) row[i++]);
-        hospital.setAccreditation((String) row[i++]);
-        hospital.setHospitalRegisNumber((String) row[i++]);
-        hospital.setTown((String) row[i++]);
-        hospital.setSubtown((String) row[i++]);
-        hospital.setVillage((String) row[i++]);
-        hospital.setEstablishedYear((String) row[i++]);
-        hospital.setMiscellaneousFacilities((String) row[i++]);
-        hospital.setNumberDoctor(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumMediconsultantOrExpert(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setTotalNumBeds(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumberPrivateWards(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setNumBedForEcoWeakerSec(row[i] != null ? ((Number) row[i]).intValue() : null); i++;
-        hospital.setEmpanelmentOrCollaborationWith((String) row[i++]);
-        hospital.setEmergencyServices((String) row[i++]);
-        hospital.setTariffRange((String) row[i++]);
-        hospital.setStateId((String) row[i++]);
-        hospital.setDistrictId((String) row[i++]);
-        hospital.setCreatedAt(row[i] != null ? ((Timestamp) row[i]).toLocalDateTime() : null); i++;
-        hospital.setUpdatedAt(row[i] != null ? ((Timestamp) row[i]).toLocalDateTime() : null); i++;
-        // Skip distance column (last one)
-        
-        return hospital;
+    private static List<Long> nearbyIds(Page<Object[]> rows) {
+        List<Long> ids = new ArrayList<>(rows.getNumberOfElements());
+        for (Object[] row : rows) {
+            ids.add(((Number) row[0]).longValue());
+        }
+        return ids;
     }
-
+    
     private Hospital convertToEntity(HospitalCreateDTO dto) {
         Hospital hospital = new Hospital();
         hospital.setName(dto.getName());
@@ -373,35 +586,62 @@ public class HospitalService {
         return hospitalRepository.count();
     }
 
-    private Page<HospitalResponseDTO> convertToPageDTO(Page<Hospital> hospitalPage) {
-        return hospitalPage.map(this::convertToDTO);
-    }
-    
     /**
-     * Calculate distance between two points using Haversine formula
-     * @param lat1 Latitude of first point
-     * @param lon1 Longitude of first point
-     * @param lat2 Latitude of second point
-     * @param lon2 Longitude of second point
-     * @return Distance in kilometers
+     * Counts by state, city (town), district, category and care type for the hospitals
+     * matching the criteria, from one query grouping each facet in turn. Hospitals without
+     * a value are left out of that facet but included in the total.
      */
-    private double calculateDistance(double lat1, double lon1, double lat2, double lon2) {
-        // Handle null coordinates
-        if (Double.isNaN(lat1) || Double.isNaN(lon1) || Double.isNaN(lat2) || Double.isNaN(lon2)) {
-            return Double.MAX_VALUE;
-        }
-        
-        final int EARTH_RADIUS_KM = 6371;
-        
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+    @Transactional(readOnly = true)
+    public HospitalStatsDTO getFacets(HospitalSearchCriteria criteria) {
+        Map<String, Long> byState = new HashMap<>();
+        Map<String, Long> byCity = new HashMap<>();
+        Map<String, Long> byDistrict = new HashMap<>();
+        Map<String, Long> byCategory = new HashMap<>();
+        Map<String, Long> byCareType = new HashMap<>();
+        long total = 0;
         
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+        Specification<Hospital> specification = buildSearchSpecification(criteria);
+        if (specification != null) {
+            Map<String, Map<String, Long>> facets = Map.of(
+                "state", byState,
+                "district", byDistrict,
+                "hospitalCategory", byCategory,
+                "hospitalCareType", byCareType,
+                "town", byCity);
+            for (Object[] row : hospitalRepository.countByFacets(specification, FACET_ATTRIBUTES)) {
+                long count = ((Number) row[2]).longValue();
+                // Every matching hospital falls in exactly one state group, null included
+                if ("state".equals(row[0])) {
+                    total += count;
+                }
+                if (row[1] != null && !row[1].toString().isBlank()) {
+                    facets.get(row[0].toString()).merge(row[1].toString(), count, Long::sum);
+                }
+            }
+        }
         
-        return EARTH_RADIUS_KM * c;
+        return new HospitalStatsDTO(total, byCount(byState), byCount(byCity), byCount(byDistrict),
+            byCount(byCategory), byCount(byCareType));
+    }
+    
+    // Largest first, then alphabetical, as a filter sidebar lists them
+    private static Map<String, Long> byCount(Map<String, Long> facet) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        facet.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    public Map<String, Long> getSearchCacheStats() {
+        return hospitalSearchCache.stats();
+    }
+
+    public Map<String, Long> getRealtimeOutboxStats() {
+        return realtimeOutbox.stats();
+    }
+
+    private Page<HospitalResponseDTO> convertToPageDTO(Page<Hospital> hospitalPage) {
+        return hospitalPage.map(this::convertToDTO);
     }
 }
@@ -1,8 +1,13 @@
 package com.lifeline.openicu.specification;
 
 import com.lifeline.openicu.entity.Hospital;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
+
 /**
  * Specification builder for dynamic Hospital queries using JPA Criteria API.
  * Each method returns a Specification that can be combined with others using AND logic.
@@ -159,6 +164,70 @@ public class HospitalSpecification {
         };
     }
 
+    /**
+     * Restrict hospitals to the given ids, e.g. as resolved from an in-memory index
+     * @param ids the hospital ids to keep
+     * @return Specification for id filtering
+     */
+    public static Specification<Hospital> hasIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Order hospitals by a sort field with id as tie-breaker, for keyset pagination.
+     * The raw column is ordered with nulls last ascending and first descending, which is
+     * how a plain (sort field, id) index is laid out, so the database can walk the index.
+     * @param sortField the sort field
+     * @param ascending whether to sort ascending
+     * @return Specification that only applies ordering
+     */
+    public static Specification<Hospital> orderedForKeyset(String sortField, boolean ascending) {
+        return (root, query, criteriaBuilder) -> {
+            // Count queries built from the same specification must stay unordered
+            if (!Long.class.equals(query.getResultType())) {
+                HibernateCriteriaBuilder hibernateBuilder = (HibernateCriteriaBuilder) criteriaBuilder;
+                Expression<?> key = root.get(sortField);
+                query.orderBy(
+                    ascending ? hibernateBuilder.asc(key, false) : hibernateBuilder.desc(key, true),
+                    ascending ? criteriaBuilder.asc(root.get("id")) : criteriaBuilder.desc(root.get("id"))
+                );
+            }
+            return criteriaBuilder.conjunction();
+        };
+    }
+
+    /**
+     * Keep only hospitals after the given (sort key, id) position in keyset order,
+     * with nulls placed as in orderedForKeyset
+     * @param sortField the sort field
+     * @param ascending whether the sort is ascending
+     * @param key the sort key of the last hospital already returned, or null if it had none
+     * @param id the id of the last hospital already returned
+     * @return Specification for the keyset seek
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static Specification<Hospital> seekAfter(String sortField, boolean ascending, Comparable key, Long id) {
+        return (root, query, criteriaBuilder) -> {
+            Expression sortKey = root.get(sortField);
+            Expression<Long> idKey = root.get("id");
+            Predicate idBeyond = ascending
+                ? criteriaBuilder.greaterThan(idKey, id)
+                : criteriaBuilder.lessThan(idKey, id);
+            if (key == null) {
+                // Ascending ends with the null group; descending continues into the non-null keys
+                Predicate tieBreak = criteriaBuilder.and(criteriaBuilder.isNull(sortKey), idBeyond);
+                return ascending ? tieBreak : criteriaBuilder.or(tieBreak, criteriaBuilder.isNotNull(sortKey));
+            }
+            Predicate beyond = ascending
+                ? criteriaBuilder.greaterThan(sortKey, key)
+                : criteriaBuilder.lessThan(sortKey, key);
+            Predicate tieBreak = criteriaBuilder.and(criteriaBuilder.equal(sortKey, key), idBeyond);
+            return ascending
+                ? criteriaBuilder.or(beyond, tieBreak, criteriaBuilder.isNull(sortKey))
+                : criteriaBuilder.or(beyond, tieBreak);
+        };
+    }
+
     /**
      * Search hospitals by keyword across multiple fields (name, location, state, district, address)
      * @param keyword the keyword to search for
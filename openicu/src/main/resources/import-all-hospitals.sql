@@ -154,6 +154,37 @@ WHERE
     AND TRIM(hospital_name) != ''
     AND TRIM(hospital_name) != '0';
 
+-- Step 4b: Derive the Z-order geo cell used by nearby search, in one set-based UPDATE.
+-- Same encoding as GeoCell.encode: each coordinate quantised to 26 bits, bits interleaved
+-- with longitude taking the higher bit of each pair. The functions live in pg_temp and
+-- are dropped with the session.
+CREATE FUNCTION pg_temp.geo_cell_quantise(value DOUBLE PRECISION, origin DOUBLE PRECISION, span DOUBLE PRECISION)
+RETURNS BIGINT AS $$
+    SELECT GREATEST(0.0, LEAST(67108863.0, FLOOR((value - origin) / span * 67108864.0)))::BIGINT
+$$ LANGUAGE SQL IMMUTABLE;
+
+CREATE FUNCTION pg_temp.geo_cell_spread(value BIGINT) RETURNS BIGINT AS $$
+DECLARE
+    bits BIGINT := value;
+BEGIN
+    bits := (bits | (bits << 16)) & 281470681808895;      -- 0x0000FFFF0000FFFF
+    bits := (bits | (bits << 8)) & 71777214294589695;     -- 0x00FF00FF00FF00FF
+    bits := (bits | (bits << 4)) & 1085102592571150095;   -- 0x0F0F0F0F0F0F0F0F
+    bits := (bits | (bits << 2)) & 3689348814741910323;   -- 0x3333333333333333
+    bits := (bits | (bits << 1)) & 6148914691236517205;   -- 0x5555555555555555
+    RETURN bits;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+CREATE FUNCTION pg_temp.geo_cell(latitude DOUBLE PRECISION, longitude DOUBLE PRECISION) RETURNS BIGINT AS $$
+    SELECT (pg_temp.geo_cell_spread(pg_temp.geo_cell_quantise(longitude, -180.0, 360.0)) << 1)
+         | pg_temp.geo_cell_spread(pg_temp.geo_cell_quantise(latitude, -90.0, 180.0))
+$$ LANGUAGE SQL IMMUTABLE;
+
+UPDATE hospitals
+SET geo_cell = pg_temp.geo_cell(latitude, longitude)
+WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
+
 -- Step 5: Show comprehensive results
 SELECT 
     COUNT(*) as total_hospitals_imported,
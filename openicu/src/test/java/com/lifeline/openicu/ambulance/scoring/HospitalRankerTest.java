@@ -0,0 +1,55 @@
+package com.lifeline.openicu.ambulance.scoring;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import com.lifeline.openicu.ambulance.service.RoutingCandidate;
+import com.lifeline.openicu.index.HospitalProfileIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HospitalRankerTest {
+
+    private final HospitalRanker ranker = new HospitalRanker(
+            List.of(new NearestScorer()), new RoutingProperties(), new HospitalProfileIndex());
+
+    @Test
+    void keepsTheBestCandidatesInFullSortOrder() {
+        Random random = new Random(7);
+        List<RoutingCandidate> candidates = new ArrayList<>();
+        for (long id = 0; id < 200; id++) {
+            // Coarse distances so that ties occur; every tenth hospital has no coordinates
+            double distanceKm = random.nextInt(40);
+            double coordinate = id % 10 == 0 ? Double.NaN : 1.0;
+            candidates.add(new RoutingCandidate(id, "H" + id, coordinate, coordinate, distanceKm, 1, null));
+        }
+
+        // Located first by distance, then unlocated; ties in input order
+        List<Long> expected = candidates.stream()
+                .sorted(Comparator.comparing((RoutingCandidate candidate) -> !candidate.hasCoordinates())
+                        .thenComparingDouble(candidate -> candidate.hasCoordinates() ? candidate.distanceKm() : 0))
+                .map(RoutingCandidate::hospitalId)
+                .toList();
+
+        HospitalScorer scorer = ranker.scorer(null);
+        for (int limit : new int[] {1, 5, 17, 200, 500}) {
+            List<Long> ranked = ranker.rank(candidates, scorer, null, limit).stream()
+                    .map(RoutingCandidate::hospitalId)
+                    .toList();
+            assertEquals(expected.subList(0, Math.min(limit, expected.size())), ranked, "limit " + limit);
+        }
+    }
+
+    @Test
+    void returnsNothingForAnEmptyWindowOrNoLimit() {
+        List<RoutingCandidate> candidates = List.of(new RoutingCandidate(1L, "H1", 1.0, 1.0, 3.0, 1, null));
+
+        assertTrue(ranker.rank(List.of(), ranker.scorer(null), null, 3).isEmpty());
+        assertTrue(ranker.rank(candidates, ranker.scorer(null), null, 0).isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.ambulance.dto.AmbulanceRequestDTO;
+import com.lifeline.openicu.ambulance.dto.HospitalMatchDTO;
+import com.lifeline.openicu.ambulance.entity.BedReservation;
+import com.lifeline.openicu.ambulance.entity.ReservationStatus;
+import com.lifeline.openicu.ambulance.repository.BedReservationRepository;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.service.BedService;
+import com.lifeline.openicu.dto.HospitalCreateDTO;
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.service.HospitalService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for concurrent ambulance dispatch: many ambulances racing for a
+ * small pool of beds must never end up holding the same bed.
+ */
+@SpringBootTest
+class AmbulanceRoutingConcurrencyTest {
+
+    private static final int DISPATCHES = 400;
+    private static final int THREADS = 32;
+
+    // Lower bound on dispatch throughput, well below what the claim path sustains. Wall-clock
+    // dependent, so only checked with the benchmarks: mvn test -Dopenicu.benchmark=true
+    private static final double MIN_DISPATCHES_PER_SECOND = 100.0;
+
+    @Autowired
+    private AmbulanceRoutingService ambulanceRoutingService;
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Autowired
+    private BedService bedService;
+
+    @Autowired
+    private BedReservationRepository bedReservationRepository;
+
+    @Test
+    void concurrentDispatchesNeverDoubleBookABed() throws Exception {
+        // Two hospitals far away from any other test data, 60 ventilator beds in total
+        Long near = createHospitalWithBeds("Concurrency Near", -45.00, 170.00, 40);
+        Long far = createHospitalWithBeds("Concurrency Far", -45.20, 170.30, 20);
+        int totalBeds = 60;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HospitalMatchDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < DISPATCHES; i++) {
+            AmbulanceRequestDTO request = new AmbulanceRequestDTO("AMB-STRESS-" + i, -45.01, 170.01, "VENTILATOR");
+            futures.add(executor.submit(() -> {
+                start.await();
+                return ambulanceRoutingService.findNearestHospital(request);
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+
+        List<HospitalMatchDTO> matches = new ArrayList<>();
+        int rejected = 0;
+        for (Future<HospitalMatchDTO> future : futures) {
+            try {
+                matches.add(future.get(60, TimeUnit.SECONDS));
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException, "Unexpected failure: " + e.getCause());
+                rejected++;
+            }
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        executor.shutdown();
+
+        if (Boolean.getBoolean("openicu.benchmark")) {
+            double dispatchesPerSecond = DISPATCHES * 1000.0 / Math.max(1, elapsedMs);
+            assertTrue(dispatchesPerSecond >= MIN_DISPATCHES_PER_SECOND,
+                    "Dispatch throughput too low: " + Math.round(dispatchesPerSecond) + "/s");
+        }
+
+        // Every bed is handed out exactly once
+        assertEquals(totalBeds, matches.size());
+        assertEquals(DISPATCHES - totalBeds, rejected);
+
+        Set<Long> bedIds = new HashSet<>();
+        for (HospitalMatchDTO match : matches) {
+            assertTrue(bedIds.add(match.getBedId()), "Bed handed out twice: " + match.getBedId());
+            assertTrue(match.getHospitalId().equals(near) || match.getHospitalId().equals(far));
+        }
+
+        // And the database agrees: one RESERVED reservation per bed
+        Set<Long> reservedBedIds = new HashSet<>();
+        int reservations = 0;
+        for (BedReservation reservation : bedReservationRepository.findAll()) {
+            if (reservation.getStatus() == ReservationStatus.RESERVED
+                    && reservation.getAmbulanceId().startsWith("AMB-STRESS-")) {
+                reservations++;
+                assertTrue(reservedBedIds.add(reservation.getBedId()),
+                        "Bed reserved twice: " + reservation.getBedId());
+            }
+        }
+        assertEquals(totalBeds, reservations);
+        assertEquals(bedIds, reservedBedIds);
+    }
+
+    @Test
+    void retriedDispatchesReuseTheAmbulancesReservation() throws Exception {
+        // A single bed, so that the stress test never routes to it once it is taken
+        createHospitalWithBeds("Retry Hospital", 62.00, -40.00, 1);
+
+        // The same ambulance retrying concurrently must end up with one bed
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HospitalMatchDTO>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            AmbulanceRequestDTO request = new AmbulanceRequestDTO("AMB-RETRY", 62.01, -40.01, "VENTILATOR");
+            futures.add(executor.submit(() -> {
+                start.await();
+                return ambulanceRoutingService.findNearestHospital(request);
+            }));
+        }
+        start.countDown();
+
+        Set<Long> bedIds = new HashSet<>();
+        for (Future<HospitalMatchDTO> future : futures) {
+            bedIds.add(future.get(60, TimeUnit.SECONDS).getBedId());
+        }
+        executor.shutdown();
+        assertEquals(1, bedIds.size());
+
+        long reservations = bedReservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getAmbulanceId().equals("AMB-RETRY"))
+                .count();
+        assertEquals(1, reservations);
+    }
+
+    @Test
+    void batchAndSingleDispatchesForOneAmbulanceShareAReservation() throws Exception {
+        // A single bed, so that the stress test never routes to it once it is taken
+        createHospitalWithBeds("Batch Hospital", -60.00, 100.00, 1);
+
+        // The ambulance appears twice in each batch and also dispatches on its own
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<HospitalMatchDTO>>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            boolean batch = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                AmbulanceRequestDTO request = new AmbulanceRequestDTO("AMB-BATCH", -60.01, 100.01, "VENTILATOR");
+                return batch
+                        ? ambulanceRoutingService.findNearestHospitals(List.of(request, request))
+                        : List.of(ambulanceRoutingService.findNearestHospital(request));
+            }));
+        }
+        start.countDown();
+
+        Set<Long> bedIds = new HashSet<>();
+        for (Future<List<HospitalMatchDTO>> future : futures) {
+            for (HospitalMatchDTO match : future.get(60, TimeUnit.SECONDS)) {
+                bedIds.add(match.getBedId());
+            }
+        }
+        executor.shutdown();
+        assertEquals(1, bedIds.size());
+
+        long reservations = bedReservationRepository.findAll().stream()
+                .filter(reservation -> reservation.getAmbulanceId().equals("AMB-BATCH"))
+                .count();
+        assertEquals(1, reservations);
+    }
+
+    private Long createHospitalWithBeds(String name, double latitude, double longitude, int beds) {
+        HospitalCreateDTO dto = new HospitalCreateDTO();
+        dto.setName(name);
+        dto.setLatitude(latitude);
+        dto.setLongitude(longitude);
+        HospitalResponseDTO hospital = hospitalService.createHospital(dto);
+
+        for (int i = 0; i < beds; i++) {
+            bedService.createBed(hospital.getId(), "V-" + i, BedType.VENTILATOR);
+        }
+        return hospital.getId();
+    }
+}
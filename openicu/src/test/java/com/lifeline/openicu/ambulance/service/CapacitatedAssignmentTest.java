@@ -0,0 +1,41 @@
+package com.lifeline.openicu.ambulance.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class CapacitatedAssignmentTest {
+
+    @Test
+    void prefersLowerTotalDistanceOverGreedyNearest() {
+        // Greedy would give ambulance 0 its nearest hospital and leave ambulance 1 stranded
+        int[][] targets = {{0, 1}, {0}};
+        double[][] costs = {{1.0, 2.0}, {3.0}};
+
+        int[] assignment = CapacitatedAssignment.solve(targets, costs, new int[] {1, 1});
+
+        assertArrayEquals(new int[] {1, 0}, assignment);
+    }
+
+    @Test
+    void respectsHospitalCapacity() {
+        // Hospital 0 is nearest for everyone but has two beds; the ambulance with the
+        // cheapest detour is the one sent to hospital 1
+        int[][] targets = {{0, 1}, {0, 1}, {0, 1}};
+        double[][] costs = {{1.0, 5.0}, {1.0, 4.0}, {1.0, 9.0}};
+
+        int[] assignment = CapacitatedAssignment.solve(targets, costs, new int[] {2, 1});
+
+        assertArrayEquals(new int[] {0, 1, 0}, assignment);
+    }
+
+    @Test
+    void leavesAmbulancesUnplacedWhenCapacityRunsOut() {
+        int[][] targets = {{0}, {0}};
+        double[][] costs = {{2.0}, {1.0}};
+
+        int[] assignment = CapacitatedAssignment.solve(targets, costs, new int[] {1});
+
+        assertArrayEquals(new int[] {-1, 0}, assignment);
+    }
+}
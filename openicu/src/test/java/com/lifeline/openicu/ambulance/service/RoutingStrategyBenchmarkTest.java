@@ -0,0 +1,132 @@
+package com.lifeline.openicu.ambulance.service;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.index.GeoCell;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import com.lifeline.openicu.repository.HospitalRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the in-memory and SQL routing strategies on a national-scale dataset.
+ * Opt-in, as loading the data takes a while: mvn test -Dopenicu.benchmark=true
+ */
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:routing-benchmark;DB_CLOSE_DELAY=-1")
+@EnabledIfSystemProperty(named = "openicu.benchmark", matches = "true")
+class RoutingStrategyBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoutingStrategyBenchmarkTest.class);
+
+    private static final int HOSPITALS = 20_000;
+    private static final int BEDS_PER_HOSPITAL = 25;
+    private static final int QUERIES = 200;
+    private static final int LIMIT = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IndexRoutingStrategy indexRoutingStrategy;
+
+    @Autowired
+    private SqlRoutingStrategy sqlRoutingStrategy;
+
+    @Autowired
+    private HospitalRepository hospitalRepository;
+
+    @Autowired
+    private HospitalSpatialIndex hospitalSpatialIndex;
+
+    @Autowired
+    private BedAvailabilityIndex bedAvailabilityIndex;
+
+    @Test
+    void compareStrategies() {
+        Random random = new Random(42);
+        loadDataset(random);
+
+        List<double[]> points = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            points.add(new double[] {8 + random.nextDouble() * 27, 68 + random.nextDouble() * 29});
+        }
+
+        // Warm up both paths before timing
+        for (int i = 0; i < 20; i++) {
+            indexRoutingStrategy.findCandidates(points.get(i)[0], points.get(i)[1], BedType.ICU, LIMIT);
+            sqlRoutingStrategy.findCandidates(points.get(i)[0], points.get(i)[1], BedType.ICU, LIMIT);
+        }
+
+        long indexNanos = 0;
+        long sqlNanos = 0;
+        for (double[] point : points) {
+            long start = System.nanoTime();
+            List<RoutingCandidate> fromIndex = indexRoutingStrategy.findCandidates(point[0], point[1], BedType.ICU, LIMIT);
+            indexNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            List<RoutingCandidate> fromSql = sqlRoutingStrategy.findCandidates(point[0], point[1], BedType.ICU, LIMIT);
+            sqlNanos += System.nanoTime() - start;
+
+            // Both strategies must rank the same nearest hospital first
+            assertEquals(fromIndex.get(0).distanceKm(), fromSql.get(0).distanceKm(), 1e-6);
+            assertEquals(fromIndex.get(0).availableBeds(), fromSql.get(0).availableBeds());
+        }
+
+        logger.info("Routing over {} hospitals / {} beds: index {} us/query, sql {} us/query",
+                HOSPITALS, HOSPITALS * BEDS_PER_HOSPITAL,
+                indexNanos / 1000 / QUERIES, sqlNanos / 1000 / QUERIES);
+    }
+
+    private void loadDataset(Random random) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> hospitals = new ArrayList<>(HOSPITALS);
+        for (int i = 0; i < HOSPITALS; i++) {
+            double latitude = 8 + random.nextDouble() * 27;
+            double longitude = 68 + random.nextDouble() * 29;
+            hospitals.add(new Object[] {"Benchmark Hospital " + i, latitude, longitude,
+                    GeoCell.encode(latitude, longitude), now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO hospitals (name, latitude, longitude, geo_cell, created_at, updated_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", hospitals);
+
+        List<Long> hospitalIds = jdbcTemplate.queryForList("SELECT id FROM hospitals", Long.class);
+        List<Object[]> beds = new ArrayList<>();
+        for (Long hospitalId : hospitalIds) {
+            for (int b = 0; b < BEDS_PER_HOSPITAL; b++) {
+                String bedType = b % 2 == 0 ? "ICU" : "VENTILATOR";
+                String bedStatus = random.nextInt(5) == 0 ? "OCCUPIED" : "AVAILABLE";
+                beds.add(new Object[] {"B-" + b, hospitalId, bedType, bedStatus, now, now});
+            }
+            if (beds.size() >= 10_000) {
+                insertBeds(beds);
+                beds.clear();
+            }
+        }
+        insertBeds(beds);
+
+        hospitalSpatialIndex.load(hospitalRepository.findAll());
+        bedAvailabilityIndex.load();
+    }
+
+    private void insertBeds(List<Object[]> beds) {
+        jdbcTemplate.batchUpdate("INSERT INTO beds (bed_number, hospital_id, bed_type, bed_status, created_at, "
+                + "updated_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)", beds);
+    }
+}
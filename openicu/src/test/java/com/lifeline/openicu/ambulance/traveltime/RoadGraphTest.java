@@ -0,0 +1,89 @@
+package com.lifeline.openicu.ambulance.traveltime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RoadGraphTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void parsesNodesAndEdgesSkippingCommentsAndBlankLines() throws IOException {
+        RoadGraph graph = RoadGraph.load(write("""
+                # three junctions on one road
+                nodes 3
+                12.00 77.00
+
+                12.01 77.00
+                12.02 77.00
+                edges 3
+                0 1 60
+                1 0 60
+                1 2 30.5
+                """));
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertEquals(2, graph.forwardEnd(1) - graph.forwardStart(1));
+        assertEquals(0, graph.forwardEnd(2) - graph.forwardStart(2));
+        int edge = graph.forwardStart(0);
+        assertEquals(1, graph.forwardTarget(edge));
+        assertEquals(60_000, graph.forwardMillis(edge));
+        // Edges into node 2, seen from the reverse side
+        assertEquals(1, graph.reverseTarget(graph.reverseStart(2)));
+        assertEquals(30_500, graph.reverseMillis(graph.reverseStart(2)));
+    }
+
+    @Test
+    void rejectsEdgesToUnknownNodes() throws IOException {
+        Path path = write("nodes 1\n12.0 77.0\nedges 1\n0 1 10\n");
+
+        assertThrows(IOException.class, () -> RoadGraph.load(path));
+    }
+
+    @Test
+    void rejectsMalformedFiles() throws IOException {
+        Path badNumber = write("nodes 1\n12.0 east\nedges 0\n");
+        Path missingHeader = write("12.0 77.0\n");
+        Path truncated = write("nodes 2\n12.0 77.0\n");
+
+        assertThrows(IOException.class, () -> RoadGraph.load(badNumber));
+        assertThrows(IOException.class, () -> RoadGraph.load(missingHeader));
+        assertThrows(IOException.class, () -> RoadGraph.load(truncated));
+    }
+
+    @Test
+    void snapsToTheNearestNode() throws IOException {
+        RoadGraph graph = RoadGraph.load(write("nodes 3\n12.00 77.00\n12.05 77.00\n12.00 77.06\nedges 0\n"));
+
+        assertEquals(0, graph.nearestNode(12.01, 77.01));
+        assertEquals(1, graph.nearestNode(12.04, 77.00));
+        assertEquals(2, graph.nearestNode(12.00, 77.05));
+    }
+
+    @Test
+    void doesNotSnapBeyondTheCutOff() throws IOException {
+        RoadGraph graph = RoadGraph.load(write("nodes 2\n12.00 77.00\n60.00 10.00\nedges 0\n"));
+        double degreesPerKm = 1 / 111.195;
+
+        // About 9 km and 11 km north of the node
+        assertEquals(0, graph.nearestNode(12.00 + 9 * degreesPerKm, 77.00));
+        assertEquals(-1, graph.nearestNode(12.00 + 11 * degreesPerKm, 77.00));
+
+        // At 60 degrees north a degree of longitude is half as long, so these are 9 km and 11 km east
+        assertEquals(1, graph.nearestNode(60.00, 10.00 + 18 * degreesPerKm));
+        assertEquals(-1, graph.nearestNode(60.00, 10.00 + 22 * degreesPerKm));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "graph", ".txt"), content);
+    }
+}
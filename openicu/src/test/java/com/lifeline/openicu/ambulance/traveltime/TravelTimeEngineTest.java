@@ -0,0 +1,180 @@
+package com.lifeline.openicu.ambulance.traveltime;
+
+import com.lifeline.openicu.ambulance.config.RoutingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the engine's landmark-guided and plain searches against a textbook Dijkstra on a
+ * small grid of roads with random travel times and some one-way streets.
+ */
+class TravelTimeEngineTest {
+
+    private static final int SIZE = 20;
+    private static final double SPACING = 0.005;
+
+    @TempDir
+    Path directory;
+
+    private final Random random = new Random(11);
+
+    // Directed edges as {from, to, seconds}; the last node is an isolated junction
+    private final List<int[]> edges = new ArrayList<>();
+    private int nodes;
+    private TravelTimeEngine engine;
+
+    @BeforeEach
+    void loadGrid() throws IOException {
+        nodes = SIZE * SIZE + 1;
+        StringBuilder file = new StringBuilder("nodes " + nodes + "\n");
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            file.append(latitude(i)).append(' ').append(longitude(i)).append('\n');
+        }
+        file.append(latitude(SIZE * SIZE - 1) + 3 * SPACING).append(' ').append(longitude(0)).append('\n');
+
+        for (int i = 0; i < SIZE * SIZE; i++) {
+            if (i % SIZE < SIZE - 1) {
+                road(i, i + 1);
+            }
+            if (i / SIZE < SIZE - 1) {
+                road(i, i + SIZE);
+            }
+        }
+        file.append("edges ").append(edges.size()).append('\n');
+        for (int[] edge : edges) {
+            file.append(edge[0]).append(' ').append(edge[1]).append(' ').append(edge[2]).append('\n');
+        }
+
+        RoutingProperties properties = new RoutingProperties();
+        properties.setRoadGraph(Files.writeString(directory.resolve("grid.txt"), file).toString());
+        properties.setLandmarks(4);
+        properties.setTravelTimeSearches(2);
+        engine = new TravelTimeEngine(properties);
+        engine.load();
+    }
+
+    @Test
+    void matchesDijkstraForFewAndManyDestinations() {
+        assertTrue(engine.isAvailable());
+        // One and a few destinations use the landmark bound, twenty a plain search
+        for (int destinations : new int[] {1, 3, 8, 20}) {
+            for (int query = 0; query < 25; query++) {
+                int origin = random.nextInt(SIZE * SIZE);
+                int[] targets = random.ints(destinations, 0, SIZE * SIZE).toArray();
+
+                assertArrayEquals(expectedSeconds(origin, targets), travelTimes(origin, targets), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void matchesDijkstraFromConcurrentQueries() {
+        // More threads than search spaces, so queries wait for and reuse them
+        IntStream.range(0, 64).parallel().forEach(query -> {
+            Random local = new Random(query);
+            int origin = local.nextInt(SIZE * SIZE);
+            int[] targets = local.ints(5, 0, SIZE * SIZE).toArray();
+
+            assertArrayEquals(expectedSeconds(origin, targets), travelTimes(origin, targets), 1e-9);
+        });
+    }
+
+    @Test
+    void reportsUnreachableAndOffNetworkDestinations() {
+        double[] seconds = engine.travelTimesSeconds(latitude(0), longitude(0), new double[][] {
+                {latitude(SIZE * SIZE - 1) + 3 * SPACING, longitude(0)},
+                {latitude(0) + 1.0, longitude(0)},
+                {latitude(0), longitude(0)}});
+
+        assertEquals(Double.POSITIVE_INFINITY, seconds[0]);
+        assertEquals(Double.POSITIVE_INFINITY, seconds[1]);
+        assertEquals(0.0, seconds[2]);
+    }
+
+    @Test
+    void reportsAnOffNetworkOrigin() {
+        double[] seconds = engine.travelTimesSeconds(latitude(0) - 1.0, longitude(0),
+                new double[][] {{latitude(1), longitude(1)}});
+
+        assertTrue(Double.isNaN(seconds[0]));
+    }
+
+    @Test
+    void isUnavailableWithoutAGraph() {
+        TravelTimeEngine unconfigured = new TravelTimeEngine(new RoutingProperties());
+        unconfigured.load();
+
+        assertFalse(unconfigured.isAvailable());
+    }
+
+    private void road(int a, int b) {
+        int seconds = 20 + random.nextInt(100);
+        // Roughly one street in six is one-way, in either direction
+        int kind = random.nextInt(12);
+        if (kind != 0) {
+            edges.add(new int[] {a, b, seconds});
+        }
+        if (kind != 1) {
+            edges.add(new int[] {b, a, seconds + random.nextInt(20)});
+        }
+    }
+
+    private double[] travelTimes(int origin, int[] targets) {
+        double[][] destinations = new double[targets.length][];
+        for (int i = 0; i < targets.length; i++) {
+            destinations[i] = new double[] {latitude(targets[i]), longitude(targets[i])};
+        }
+        return engine.travelTimesSeconds(latitude(origin), longitude(origin), destinations);
+    }
+
+    private double[] expectedSeconds(int origin, int[] targets) {
+        long[] distance = new long[nodes];
+        Arrays.fill(distance, Long.MAX_VALUE);
+        distance[origin] = 0;
+        PriorityQueue<long[]> queue = new PriorityQueue<>((x, y) -> Long.compare(x[1], y[1]));
+        queue.add(new long[] {origin, 0});
+        while (!queue.isEmpty()) {
+            long[] entry = queue.poll();
+            int node = (int) entry[0];
+            if (entry[1] > distance[node]) {
+                continue;
+            }
+            for (int[] edge : edges) {
+                if (edge[0] == node && distance[node] + edge[2] < distance[edge[1]]) {
+                    distance[edge[1]] = distance[node] + edge[2];
+                    queue.add(new long[] {edge[1], distance[edge[1]]});
+                }
+            }
+        }
+
+        double[] seconds = new double[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            seconds[i] = distance[targets[i]] == Long.MAX_VALUE ? Double.POSITIVE_INFINITY : distance[targets[i]];
+        }
+        return seconds;
+    }
+
+    private static double latitude(int node) {
+        return 12.0 + (node / SIZE) * SPACING;
+    }
+
+    private static double longitude(int node) {
+        return 77.0 + (node % SIZE) * SPACING;
+    }
+}
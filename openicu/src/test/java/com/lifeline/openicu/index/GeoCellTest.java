@@ -0,0 +1,79 @@
+package com.lifeline.openicu.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoCellTest {
+
+    @Test
+    void encodesCornersAndClampsOutOfRangeCoordinates() {
+        long last = (1L << (2 * GeoCell.LEVELS)) - 1;
+
+        assertEquals(0L, GeoCell.encode(-90.0, -180.0));
+        assertEquals(last, GeoCell.encode(90.0, 180.0));
+        assertEquals(GeoCell.encode(90.0, 180.0), GeoCell.encode(95.0, 200.0));
+        // Longitude takes the higher bit of each pair
+        assertEquals(1L << (2 * GeoCell.LEVELS - 1), GeoCell.encode(-90.0, 0.0));
+        assertEquals(1L << (2 * GeoCell.LEVELS - 2), GeoCell.encode(0.0, -180.0));
+    }
+
+    @Test
+    void missingCoordinatesHaveNoCell() {
+        assertNull(GeoCell.of(null, 77.0));
+        assertNull(GeoCell.of(12.0, null));
+        assertNull(GeoCell.of(Double.NaN, 77.0));
+        assertEquals(GeoCell.encode(12.0, 77.0), GeoCell.of(12.0, 77.0));
+    }
+
+    @Test
+    void nearbyPointsShareACoarseCellPrefix() {
+        long a = GeoCell.encode(18.5204, 73.8567);
+        long b = GeoCell.encode(18.5205, 73.8568);
+        long far = GeoCell.encode(-33.8688, 151.2093);
+
+        int sharedBits = Long.numberOfLeadingZeros(a ^ b) - (64 - 2 * GeoCell.LEVELS);
+        assertTrue(sharedBits >= 30, "shared bits: " + sharedBits);
+        assertTrue(Long.numberOfLeadingZeros(a ^ far) - (64 - 2 * GeoCell.LEVELS) < 4);
+    }
+
+    @Test
+    void coveringRangesContainEveryPointInTheBox() {
+        Random random = new Random(11);
+        for (int box = 0; box < 50; box++) {
+            double minLatitude = -80 + random.nextDouble() * 150;
+            double minLongitude = -170 + random.nextDouble() * 330;
+            double maxLatitude = minLatitude + random.nextDouble() * 5;
+            double maxLongitude = minLongitude + random.nextDouble() * 5;
+            List<GeoCell.Range> ranges = GeoCell.cover(minLatitude, maxLatitude, minLongitude, maxLongitude);
+
+            assertTrue(ranges.size() <= 16, "ranges: " + ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                assertTrue(ranges.get(i).from() <= ranges.get(i).to());
+                // Ascending, and adjacent cells merged into one range
+                if (i > 0) {
+                    assertTrue(ranges.get(i).from() > ranges.get(i - 1).to() + 1);
+                }
+            }
+            for (int point = 0; point < 200; point++) {
+                long cell = GeoCell.encode(
+                        minLatitude + random.nextDouble() * (maxLatitude - minLatitude),
+                        minLongitude + random.nextDouble() * (maxLongitude - minLongitude));
+                assertTrue(ranges.stream().anyMatch(range -> range.from() <= cell && cell <= range.to()),
+                        "cell " + cell + " outside the cover of box " + box);
+            }
+        }
+    }
+
+    @Test
+    void wholeWorldIsOneRange() {
+        long last = (1L << (2 * GeoCell.LEVELS)) - 1;
+
+        assertEquals(List.of(new GeoCell.Range(0, last)), GeoCell.cover(-90.0, 90.0, -180.0, 180.0));
+    }
+}
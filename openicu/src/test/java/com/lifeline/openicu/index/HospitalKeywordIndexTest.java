@@ -0,0 +1,69 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HospitalKeywordIndexTest {
+
+    private final HospitalKeywordIndex index = new HospitalKeywordIndex();
+
+    @Test
+    void matchesSubstringsOfAnyFieldIgnoringCase() {
+        index.load(List.of(
+                hospital(1L, "City General Hospital", "Pune", "Maharashtra", "12 MG Road"),
+                hospital(2L, "St. Mary's Clinic", "Kochi", "Kerala", "Beach Road"),
+                hospital(3L, "Apollo", "Chennai", "Tamil Nadu", null)));
+
+        assertEquals(Set.of(1L), index.search("GENERAL"));
+        assertEquals(Set.of(1L, 2L), index.search("road"));
+        assertEquals(Set.of(3L), index.search("tamil nadu"));
+        assertEquals(Set.of(), index.search("bangalore"));
+    }
+
+    @Test
+    void doesNotMatchAcrossFieldBoundaries() {
+        // "pune" + "maharashtra" would form the trigram "ema" only if the fields were joined
+        index.load(List.of(hospital(1L, "Ruby", "Pune", "Maharashtra", null)));
+
+        assertEquals(Set.of(), index.search("punemaha"));
+        assertEquals(Set.of(), index.search("nem"));
+    }
+
+    @Test
+    void keywordsShorterThanATrigramScanEveryHospital() {
+        index.load(List.of(
+                hospital(1L, "ENT Centre", null, null, null),
+                hospital(2L, "Eye Care", null, null, null),
+                hospital(3L, "Dental", null, null, null)));
+
+        assertEquals(Set.of(2L), index.search("y"));
+        assertEquals(Set.of(1L, 3L), index.search("nt"));
+        assertEquals(Set.of(), index.search("zz"));
+    }
+
+    @Test
+    void reindexingDropsTheOldText() {
+        index.load(List.of(hospital(1L, "Old Name", null, null, null)));
+
+        index.upsert(hospital(1L, "New Name", null, null, null));
+
+        assertEquals(Set.of(), index.search("old"));
+        assertEquals(Set.of(1L), index.search("new"));
+        assertEquals(Set.of(1L), index.search("name"));
+    }
+
+    private static Hospital hospital(Long id, String name, String location, String state, String address) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName(name);
+        hospital.setLocation(location);
+        hospital.setState(state);
+        hospital.setAddress(address);
+        return hospital;
+    }
+}
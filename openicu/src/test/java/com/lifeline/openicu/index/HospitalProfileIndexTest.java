@@ -0,0 +1,27 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HospitalProfileIndexTest {
+
+    @Test
+    void matchesWholeSpecialtiesOnly() {
+        Hospital hospital = new Hospital();
+        hospital.setId(1L);
+        hospital.setSpecialties("Cancer Centre, General  Surgery Oncology; ENT");
+        HospitalProfileIndex index = new HospitalProfileIndex();
+        index.load(List.of(hospital));
+
+        assertTrue(index.hasSpecialty(1L, HospitalTagIndex.tag(" ent ")));
+        assertTrue(index.hasSpecialty(1L, HospitalTagIndex.tag("general surgery  ONCOLOGY")));
+        assertFalse(index.hasSpecialty(1L, HospitalTagIndex.tag("general surgery")));
+        assertFalse(index.hasSpecialty(1L, HospitalTagIndex.tag("centre")));
+        assertFalse(index.hasSpecialty(2L, HospitalTagIndex.tag("ent")));
+    }
+}
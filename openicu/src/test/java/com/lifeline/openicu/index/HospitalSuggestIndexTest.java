@@ -0,0 +1,86 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.entity.Hospital;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HospitalSuggestIndexTest {
+
+    private final HospitalSuggestIndex index = new HospitalSuggestIndex();
+
+    @Test
+    void ranksMatchesByBedCountThenName() {
+        index.load(List.of(
+                hospital(1L, "City General Hospital", "Pune", null, 120),
+                hospital(2L, "General Clinic", "Nashik", null, 10),
+                hospital(3L, "Genesis Care", "Pune", null, 120),
+                hospital(4L, "Apollo", "Chennai", null, 500)));
+
+        // Any word of the name counts; equal bed counts fall back to the name
+        assertEquals(List.of(1L, 3L, 2L), ids(index.suggest("gen", 10)));
+        assertEquals(List.of(1L, 2L), ids(index.suggest("General", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("gen", 1)));
+    }
+
+    @Test
+    void matchesDistrictAndTownWordsIgnoringPunctuation() {
+        index.load(List.of(
+                hospital(1L, "St. Mary's", "Navi Mumbai", null, 50),
+                hospital(2L, "Ruby Hall", "Pune", "Hadapsar", 80)));
+
+        assertEquals(List.of(1L), ids(index.suggest("mumbai", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("hadap", 10)));
+        assertEquals(List.of(1L), ids(index.suggest("St-Mary", 10)));
+        assertEquals(List.of(), ids(index.suggest("  ", 10)));
+        assertEquals(List.of(), ids(index.suggest("xyz", 10)));
+    }
+
+    @Test
+    void prefixesLongerThanTheKeyCutAreFilteredExactly() {
+        index.load(List.of(
+                hospital(1L, "Superspecialityhospital North", null, null, 10),
+                hospital(2L, "Superspecialityhospitals South", null, null, 20)));
+
+        assertEquals(List.of(2L, 1L), ids(index.suggest("superspecialityhosp", 10)));
+        assertEquals(List.of(2L), ids(index.suggest("superspecialityhospitals", 10)));
+    }
+
+    @Test
+    void keepsOnlyTheBestRankedPerNodeAndReranksOnUpdate() {
+        List<Hospital> hospitals = new ArrayList<>();
+        for (long id = 1; id <= HospitalSuggestIndex.MAX_SUGGESTIONS + 5; id++) {
+            hospitals.add(hospital(id, "Care " + id, null, null, (int) id));
+        }
+        index.load(hospitals);
+
+        List<Long> top = ids(index.suggest("care", HospitalSuggestIndex.MAX_SUGGESTIONS + 5));
+        assertEquals(HospitalSuggestIndex.MAX_SUGGESTIONS, top.size());
+        assertEquals(25L, top.get(0));
+
+        // The smallest hospital grows past every other one, and a renamed one drops out
+        index.upsert(hospital(1L, "Care 1", null, null, 1000));
+        index.upsert(hospital(25L, "Clinic 25", null, null, 25));
+
+        top = ids(index.suggest("care", 3));
+        assertEquals(List.of(1L, 24L, 23L), top);
+        assertEquals(List.of(25L), ids(index.suggest("clinic", 3)));
+    }
+
+    private static List<Long> ids(List<HospitalSuggestIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(HospitalSuggestIndex.Suggestion::id).toList();
+    }
+
+    private static Hospital hospital(Long id, String name, String district, String town, int beds) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName(name);
+        hospital.setDistrict(district);
+        hospital.setTown(town);
+        hospital.setTotalNumBeds(beds);
+        return hospital;
+    }
+}
@@ -0,0 +1,99 @@
+package com.lifeline.openicu.index;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.index.BedAvailabilityChangedEvent;
+import com.lifeline.openicu.bed.index.BedAvailabilityIndex;
+import com.lifeline.openicu.entity.Hospital;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HospitalTileIndexTest {
+
+    private final BedAvailabilityIndex beds = mock(BedAvailabilityIndex.class);
+    private final HospitalTileIndex index = new HospitalTileIndex(beds);
+
+    @Test
+    void lowZoomTilesClusterNearbyHospitals() {
+        when(beds.freeBedCount(anyLong(), eq(BedType.ICU))).thenReturn(2);
+        index.load(List.of(
+                hospital(1L, 18.52, 73.85),
+                hospital(2L, 18.53, 73.86),
+                hospital(3L, -33.87, 151.21),
+                hospital(4L, null, null)));
+
+        HospitalTileIndex.Tile world = index.tile(0, 0, 0);
+        assertTrue(world.clustered());
+        assertEquals(2, world.features().size());
+        assertEquals(3, world.features().stream().mapToInt(HospitalTileIndex.Feature::count).sum());
+
+        // Both Pune hospitals fall in one cluster at their centroid, with their beds summed
+        HospitalTileIndex.Feature pune = world.features().stream()
+                .filter(feature -> feature.count() == 2).findFirst().orElseThrow();
+        assertEquals(18.525, pune.latitude(), 1e-9);
+        assertEquals(73.855, pune.longitude(), 1e-9);
+        assertEquals(4, pune.availableIcuBeds());
+    }
+
+    @Test
+    void highZoomTilesListIndividualHospitals() {
+        index.load(List.of(hospital(1L, 18.52, 73.85), hospital(2L, 18.53, 73.86)));
+
+        int zoom = HospitalTileIndex.MAX_CLUSTER_ZOOM + 1;
+        HospitalTileIndex.Tile tile = index.tile(zoom, x(73.85, zoom), y(18.52, zoom));
+        assertFalse(tile.clustered());
+        assertEquals(List.of(1L, 2L), tile.features().stream().map(HospitalTileIndex.Feature::id).toList());
+
+        // Past the leaf level a tile keeps only the hospitals inside it
+        int deep = HospitalTileIndex.MAX_ZOOM;
+        HospitalTileIndex.Tile single = index.tile(deep, x(73.85, deep), y(18.52, deep));
+        assertEquals(List.of(1L), single.features().stream().map(HospitalTileIndex.Feature::id).toList());
+    }
+
+    @Test
+    void cachedTilesAreDroppedWhenAHospitalOrItsBedsChange() {
+        index.load(List.of(hospital(1L, 18.52, 73.85)));
+        HospitalTileIndex.Tile before = index.tile(0, 0, 0);
+        assertSame(before, index.tile(0, 0, 0));
+
+        // A free ICU bed changes the cluster's count
+        when(beds.freeBedCount(1L, BedType.ICU)).thenReturn(3);
+        index.onBedAvailabilityChanged(new BedAvailabilityChangedEvent(1L, BedType.ICU));
+        assertEquals(3, index.tile(0, 0, 0).features().get(0).availableIcuBeds());
+
+        // Moving the hospital drops it from the old tile and adds it to the new one
+        int zoom = 5;
+        HospitalTileIndex.Tile oldTile = index.tile(zoom, x(73.85, zoom), y(18.52, zoom));
+        assertEquals(1, oldTile.features().size());
+        index.upsert(hospital(1L, -33.87, 151.21));
+        assertEquals(List.of(), index.tile(zoom, x(73.85, zoom), y(18.52, zoom)).features());
+        assertEquals(1, index.tile(zoom, x(151.21, zoom), y(-33.87, zoom)).features().size());
+    }
+
+    private static int x(double longitude, int zoom) {
+        return (int) Math.floor((longitude + 180.0) / 360.0 * (1 << zoom));
+    }
+
+    private static int y(double latitude, int zoom) {
+        double sin = Math.sin(Math.toRadians(latitude));
+        return (int) Math.floor((0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI)) * (1 << zoom));
+    }
+
+    private static Hospital hospital(Long id, Double latitude, Double longitude) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName("Hospital " + id);
+        hospital.setLatitude(latitude);
+        hospital.setLongitude(longitude);
+        return hospital;
+    }
+}
@@ -0,0 +1,91 @@
+package com.lifeline.openicu.realtime.beds.geofence;
+
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.index.HospitalSpatialIndex;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeoFenceIndexTest {
+
+    private static final Set<BedType> ICU = EnumSet.of(BedType.ICU);
+
+    private final HospitalSpatialIndex hospitals = new HospitalSpatialIndex();
+    private final GeoFenceIndex index = new GeoFenceIndex(hospitals);
+
+    @Test
+    void matchesHospitalsWithinTheRadiusAndBedTypes() {
+        hospitals.load(List.of(hospital(1L, 18.52, 73.85), hospital(2L, 18.90, 73.85), hospital(3L, null, null)));
+        index.register("ambulance", 18.50, 73.85, 10.0, List.of(BedType.ICU));
+
+        assertEquals(List.of("ambulance"), index.sessionsFor(1L, ICU));
+        assertEquals(List.of(), index.sessionsFor(2L, ICU));
+        assertEquals(List.of(), index.sessionsFor(1L, EnumSet.of(BedType.GENERAL)));
+        assertEquals(List.of(), index.sessionsFor(3L, ICU));
+        assertEquals(List.of(), index.sessionsFor(99L, ICU));
+    }
+
+    @Test
+    void fencesReachAcrossTheAntimeridian() {
+        hospitals.load(List.of(hospital(1L, -17.0, -179.9), hospital(2L, -17.0, 179.9)));
+        index.register("east", -17.0, 179.95, 30.0, null);
+        index.register("west", -17.0, -179.95, 30.0, null);
+
+        assertEquals(Set.of("east", "west"), Set.copyOf(index.sessionsFor(1L, ICU)));
+        assertEquals(Set.of("east", "west"), Set.copyOf(index.sessionsFor(2L, ICU)));
+    }
+
+    @Test
+    void fencesAroundAPoleCoverEveryLongitude() {
+        hospitals.load(List.of(
+                hospital(1L, 89.9, 0.0),
+                hospital(2L, 89.9, 180.0),
+                hospital(3L, 89.0, 90.0),
+                hospital(4L, -89.95, -120.0)));
+        index.register("north", 89.95, 45.0, 50.0, null);
+        index.register("south", -89.9, 60.0, 50.0, null);
+
+        assertEquals(List.of("north"), index.sessionsFor(1L, ICU));
+        assertEquals(List.of("north"), index.sessionsFor(2L, ICU));
+        assertEquals(List.of(), index.sessionsFor(3L, ICU));
+        assertEquals(List.of("south"), index.sessionsFor(4L, ICU));
+    }
+
+    @Test
+    void reRegisteringMovesTheFenceAndRemovingDropsIt() {
+        hospitals.load(List.of(hospital(1L, 18.52, 73.85), hospital(2L, 28.61, 77.20)));
+        index.register("ambulance", 18.52, 73.85, 5.0, null);
+        index.register("ambulance", 28.61, 77.20, 5.0, null);
+
+        assertEquals(1, index.size());
+        assertEquals(List.of(), index.sessionsFor(1L, ICU));
+        assertEquals(List.of("ambulance"), index.sessionsFor(2L, ICU));
+
+        index.remove("ambulance");
+        assertEquals(0, index.size());
+        assertEquals(List.of(), index.sessionsFor(2L, ICU));
+    }
+
+    @Test
+    void rejectsInvalidFences() {
+        assertThrows(IllegalArgumentException.class, () -> index.register("s", 91.0, 0.0, 5.0, null));
+        assertThrows(IllegalArgumentException.class, () -> index.register("s", 0.0, 181.0, 5.0, null));
+        assertThrows(IllegalArgumentException.class, () -> index.register("s", 0.0, 0.0, 0.0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.register("s", 0.0, 0.0, GeoFenceIndex.MAX_RADIUS_KM + 1, null));
+    }
+
+    private static Hospital hospital(Long id, Double latitude, Double longitude) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setLatitude(latitude);
+        hospital.setLongitude(longitude);
+        return hospital;
+    }
+}
@@ -0,0 +1,92 @@
+package com.lifeline.openicu.realtime.beds.service;
+
+import com.lifeline.openicu.bed.entity.BedStatus;
+import com.lifeline.openicu.bed.entity.BedType;
+import com.lifeline.openicu.bed.repository.BedRepository;
+import com.lifeline.openicu.config.IcuAvailabilityProperties;
+import com.lifeline.openicu.config.RealtimeOutboxProperties;
+import com.lifeline.openicu.realtime.beds.dto.ICUAvailabilityEvent;
+import com.lifeline.openicu.realtime.beds.publisher.BedEventPublisher;
+import com.lifeline.openicu.realtime.outbox.RealtimeOutbox;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BedRealtimeServiceTest {
+
+    private final BedEventPublisher publisher = mock(BedEventPublisher.class);
+    private final BedRepository bedRepository = mock(BedRepository.class);
+    private final IcuAvailabilityProperties properties = new IcuAvailabilityProperties();
+    private final RealtimeOutbox outbox = new RealtimeOutbox(new RealtimeOutboxProperties());
+    private final BedRealtimeService service = new BedRealtimeService(publisher, bedRepository, properties, outbox);
+
+    @AfterEach
+    void stop() {
+        service.stop();
+        outbox.stop();
+    }
+
+    @Test
+    void changesWithinAWindowArePublishedOnce() {
+        properties.setCoalesceWindow(Duration.ofMillis(100));
+        counts(1L, 3, 1);
+
+        for (int i = 0; i < 10; i++) {
+            service.onICUAvailabilityChange(1L);
+        }
+
+        ArgumentCaptor<ICUAvailabilityEvent> event = ArgumentCaptor.forClass(ICUAvailabilityEvent.class);
+        verify(publisher, timeout(2000)).publishICUAvailabilityUpdate(event.capture());
+        verify(publisher, after(300).times(1)).publishICUAvailabilityUpdate(any());
+        verify(bedRepository, times(1)).countByBedType(1L, BedStatus.AVAILABLE);
+        assertEquals(3, event.getValue().getAvailableICUBeds());
+        assertEquals(1, event.getValue().getAvailableVentilators());
+    }
+
+    @Test
+    void unchangedCountsAreNotPublishedAgain() {
+        properties.setCoalesceWindow(Duration.ZERO);
+        counts(1L, 3, 1);
+
+        service.onICUAvailabilityChange(1L);
+        service.onICUAvailabilityChange(1L);
+        verify(publisher, times(1)).publishICUAvailabilityUpdate(any());
+
+        counts(1L, 2, 1);
+        service.onICUAvailabilityChange(1L);
+        verify(publisher, times(2)).publishICUAvailabilityUpdate(any());
+    }
+
+    @Test
+    void eachHospitalHasItsOwnWindow() {
+        properties.setCoalesceWindow(Duration.ofMillis(100));
+        counts(1L, 3, 1);
+        counts(2L, 0, 2);
+
+        service.onICUAvailabilityChange(1L);
+        service.onICUAvailabilityChange(2L);
+        service.onICUAvailabilityChange(1L);
+
+        verify(publisher, timeout(2000).times(2)).publishICUAvailabilityUpdate(any());
+        verify(bedRepository, times(1)).countByBedType(1L, BedStatus.AVAILABLE);
+        verify(bedRepository, times(1)).countByBedType(2L, BedStatus.AVAILABLE);
+    }
+
+    private void counts(Long hospitalId, int icuBeds, int ventilators) {
+        when(bedRepository.countByBedType(hospitalId, BedStatus.AVAILABLE)).thenReturn(List.of(
+                new Object[] {BedType.ICU, (long) icuBeds},
+                new Object[] {BedType.VENTILATOR, (long) ventilators}));
+    }
+}
@@ -0,0 +1,40 @@
+package com.lifeline.openicu.realtime.hospital;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalSnapshotFrame;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class HospitalRealtimeServiceTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotFramesAreAddressedToTheRequestingSession() {
+        Hospital hospital = new Hospital();
+        hospital.setId(1L);
+        hospital.setName("One");
+        HospitalSnapshotCache cache = new HospitalSnapshotCache(new ObjectMapper());
+        cache.load(List.of(hospital));
+        SimpMessagingTemplate template = mock(SimpMessagingTemplate.class);
+
+        new HospitalRealtimeService(template, cache).sendHospitalsToClient("session-1", null);
+
+        // Without a principal the user destination only resolves through the sessionId header
+        ArgumentCaptor<Map<String, Object>> headers = ArgumentCaptor.forClass(Map.class);
+        verify(template).convertAndSendToUser(eq("session-1"), eq("/topic/hospitals/snapshot"),
+                any(HospitalSnapshotFrame.class), headers.capture());
+        assertEquals("session-1", SimpMessageHeaderAccessor.getSessionId(headers.getValue()));
+    }
+}
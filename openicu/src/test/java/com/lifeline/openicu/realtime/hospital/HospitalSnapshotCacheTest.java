@@ -0,0 +1,97 @@
+package com.lifeline.openicu.realtime.hospital;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalBroadcastMessage;
+import com.lifeline.openicu.realtime.hospital.dto.HospitalSnapshotFrame;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HospitalSnapshotCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HospitalSnapshotCache cache = new HospitalSnapshotCache(objectMapper);
+
+    @Test
+    void fullSnapshotIsChunkedAndDecodes() throws IOException {
+        List<Hospital> hospitals = new ArrayList<>();
+        for (long id = 1; id <= HospitalSnapshotCache.CHUNK_SIZE + 5; id++) {
+            hospitals.add(hospital(id, "Hospital " + id));
+        }
+        cache.load(hospitals);
+
+        List<HospitalSnapshotFrame> frames = cache.framesSince(null);
+
+        assertEquals(2, frames.size());
+        List<HospitalBroadcastMessage> decoded = new ArrayList<>();
+        for (HospitalSnapshotFrame frame : frames) {
+            assertEquals("SNAPSHOT", frame.getType());
+            assertEquals(2, frame.getChunkCount());
+            List<HospitalBroadcastMessage> rows = decode(frame);
+            assertEquals(frame.getCount(), rows.size());
+            decoded.addAll(rows);
+        }
+        assertEquals(hospitals.size(), decoded.size());
+        assertEquals(1L, decoded.get(0).getHospitalId());
+        assertEquals("HOSPITAL_LIST", decoded.get(0).getEvent());
+    }
+
+    @Test
+    void deltaHoldsOnlyHospitalsChangedSinceTheVersion() throws IOException {
+        cache.load(List.of(hospital(1L, "One"), hospital(2L, "Two"), hospital(3L, "Three"), hospital(4L, "Four")));
+        long seen = cache.framesSince(null).get(0).getVersion();
+
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(3L, "Three Renamed"), "HOSPITAL_UPDATED"));
+        List<HospitalSnapshotFrame> frames = cache.framesSince(seen);
+
+        assertEquals(1, frames.size());
+        HospitalSnapshotFrame frame = frames.get(0);
+        assertEquals("DELTA", frame.getType());
+        assertTrue(frame.getVersion() > seen);
+        List<HospitalBroadcastMessage> rows = decode(frame);
+        assertEquals(1, rows.size());
+        assertEquals(3L, rows.get(0).getHospitalId());
+        assertEquals("Three Renamed", rows.get(0).getName());
+        assertEquals(frame.getVersion(), rows.get(0).getVersion());
+
+        // Nothing changed since the delta's own version
+        HospitalSnapshotFrame empty = cache.framesSince(frame.getVersion()).get(0);
+        assertEquals("DELTA", empty.getType());
+        assertEquals(0, decode(empty).size());
+    }
+
+    @Test
+    void unknownVersionGetsTheFullSnapshot() {
+        cache.load(List.of(hospital(1L, "One")));
+        long current = cache.framesSince(null).get(0).getVersion();
+
+        assertEquals("SNAPSHOT", cache.framesSince(current - 1_000_000_000L).get(0).getType());
+        assertEquals("SNAPSHOT", cache.framesSince(current + 1).get(0).getType());
+    }
+
+    private List<HospitalBroadcastMessage> decode(HospitalSnapshotFrame frame) throws IOException {
+        assertEquals("gzip+base64", frame.getEncoding());
+        byte[] compressed = Base64.getDecoder().decode(frame.getData());
+        try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return Arrays.asList(objectMapper.readValue(json, HospitalBroadcastMessage[].class));
+        }
+    }
+
+    private static Hospital hospital(Long id, String name) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName(name);
+        return hospital;
+    }
+}
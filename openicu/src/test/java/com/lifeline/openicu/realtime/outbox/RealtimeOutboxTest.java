@@ -0,0 +1,50 @@
+package com.lifeline.openicu.realtime.outbox;
+
+import com.lifeline.openicu.config.RealtimeOutboxProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RealtimeOutboxTest {
+
+    @Test
+    void dropsEventsInsteadOfBlockingWhenTheQueueIsFull() throws Exception {
+        RealtimeOutboxProperties properties = new RealtimeOutboxProperties();
+        properties.setQueueCapacity(1);
+        properties.setOfferTimeoutMillis(10);
+        RealtimeOutbox outbox = new RealtimeOutbox(properties);
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch broker = new CountDownLatch(1);
+            outbox.publishAfterCommit("slow", () -> {
+                started.countDown();
+                awaitQuietly(broker);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // One event fits in the queue; the rest are dropped without waiting on the broker
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < 5; i++) {
+                outbox.publishAfterCommit("queued", () -> { });
+            }
+            assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(5));
+            assertEquals(4L, outbox.stats().get("dropped"));
+            assertEquals(4L, outbox.stats().get("queueFull"));
+            broker.countDown();
+        } finally {
+            outbox.stop();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.exception.InvalidSearchCriteriaException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HospitalCursorTest {
+
+    @Test
+    void roundTripsEachKeyType() {
+        Hospital hospital = new Hospital();
+        hospital.setId(42L);
+        hospital.setName("A|B Hospital");
+        hospital.setTotalNumBeds(120);
+        hospital.setCreatedAt(LocalDateTime.of(2025, 12, 26, 14, 30, 5, 123_000_000));
+
+        HospitalCursor byName = roundTrip(hospital, "name", true);
+        assertEquals("A|B Hospital", byName.key());
+        assertEquals(42L, byName.id());
+        assertEquals(120, roundTrip(hospital, "totalNumBeds", false).key());
+        assertEquals(hospital.getCreatedAt(), roundTrip(hospital, "createdAt", true).key());
+    }
+
+    @Test
+    void keepsANullKeyApartFromAnEmptyOne() {
+        Hospital hospital = new Hospital();
+        hospital.setId(7L);
+        assertNull(roundTrip(hospital, "state", true).key());
+
+        hospital.setState("");
+        assertEquals("", roundTrip(hospital, "state", true).key());
+    }
+
+    @Test
+    void rejectsTokensForAnotherSortOrGarbage() {
+        Hospital hospital = new Hospital();
+        hospital.setId(1L);
+        hospital.setName("Apollo");
+        String token = HospitalCursor.after(hospital, "name", true).encode();
+
+        assertThrows(InvalidSearchCriteriaException.class, () -> HospitalCursor.decode(token, "name", false));
+        assertThrows(InvalidSearchCriteriaException.class, () -> HospitalCursor.decode(token, "state", true));
+        assertThrows(InvalidSearchCriteriaException.class, () -> HospitalCursor.decode("not base64!", "name", true));
+        assertThrows(InvalidSearchCriteriaException.class, () -> HospitalCursor.decode(
+                new HospitalCursor("totalNumBeds", true, "many", 1L).encode(), "totalNumBeds", true));
+        assertThrows(InvalidSearchCriteriaException.class, () -> HospitalCursor.after(hospital, "address", true));
+    }
+
+    private static HospitalCursor roundTrip(Hospital hospital, String sortField, boolean ascending) {
+        String token = HospitalCursor.after(hospital, sortField, ascending).encode();
+        return HospitalCursor.decode(token, sortField, ascending);
+    }
+}
@@ -0,0 +1,49 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.dto.HospitalCreateDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.dto.HospitalStatsDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class HospitalFacetsTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Test
+    void countsEveryFacetOfTheMatchingHospitals() {
+        createHospital("Facet One", "Facetland", "North", "Public", "Keyton");
+        createHospital("Facet Two", "Facetland", "North", "Private", "Keyton");
+        createHospital("Facet Three", "Facetland", "South", "Public", null);
+        createHospital("Facet Elsewhere", "Otherland", "North", "Public", "Keyton");
+
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setState("facetland");
+        HospitalStatsDTO facets = hospitalService.getFacets(criteria);
+
+        assertEquals(3, facets.getTotalHospitals());
+        assertEquals(Map.of("Facetland", 3L), facets.getHospitalsByState());
+        assertEquals(Map.of("North", 2L, "South", 1L), facets.getHospitalsByDistrict());
+        assertEquals(Map.of("Public", 2L, "Private", 1L), facets.getHospitalsByCategory());
+        // Hospitals without a town are counted in the total only
+        assertEquals(Map.of("Keyton", 2L), facets.getHospitalsByCity());
+        assertEquals(Map.of(), facets.getHospitalsByCareType());
+    }
+
+    private void createHospital(String name, String state, String district, String category, String town) {
+        HospitalCreateDTO dto = new HospitalCreateDTO();
+        dto.setName(name);
+        dto.setState(state);
+        dto.setDistrict(district);
+        dto.setHospitalCategory(category);
+        dto.setTown(town);
+        hospitalService.createHospital(dto);
+    }
+}
@@ -0,0 +1,66 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.dto.HospitalCreateDTO;
+import com.lifeline.openicu.dto.HospitalCursorPage;
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class HospitalKeysetScrollTest {
+
+    @Autowired
+    private HospitalService hospitalService;
+
+    @Test
+    void scrollingVisitsEveryHospitalOnceInSortOrder() {
+        // Duplicate and missing bed counts exercise the id tie-break and the null group
+        Integer[] beds = {50, null, 20, 50, null, 80, 20, 50, 10};
+        List<HospitalResponseDTO> created = new ArrayList<>();
+        for (int i = 0; i < beds.length; i++) {
+            HospitalCreateDTO dto = new HospitalCreateDTO();
+            dto.setName("Scroll " + i);
+            dto.setState("Scrollshire");
+            dto.setTotalNumBeds(beds[i]);
+            created.add(hospitalService.createHospital(dto));
+        }
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setState("scrollshire");
+
+        Comparator<HospitalResponseDTO> byBeds = Comparator.comparing(HospitalResponseDTO::getTotalNumBeds,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        List<Long> ascending = created.stream()
+                .sorted(byBeds.thenComparing(HospitalResponseDTO::getId))
+                .map(HospitalResponseDTO::getId).toList();
+        // Descending is the exact reverse: nulls first, then the largest keys
+        List<Long> descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+
+        assertEquals(ascending, scroll(criteria, Sort.Direction.ASC, 2));
+        assertEquals(descending, scroll(criteria, Sort.Direction.DESC, 2));
+        assertEquals(ascending, scroll(criteria, Sort.Direction.ASC, 4));
+    }
+
+    private List<Long> scroll(HospitalSearchCriteria criteria, Sort.Direction direction, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            HospitalCursorPage page = hospitalService.scrollHospitals(
+                    criteria, "totalNumBeds", direction, cursor, size, true);
+            assertEquals(9L, page.getTotalElements());
+            page.getContent().forEach(hospital -> ids.add(hospital.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
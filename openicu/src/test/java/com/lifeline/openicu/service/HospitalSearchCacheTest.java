@@ -0,0 +1,133 @@
+package com.lifeline.openicu.service;
+
+import com.lifeline.openicu.config.SearchCacheProperties;
+import com.lifeline.openicu.dto.HospitalResponseDTO;
+import com.lifeline.openicu.dto.HospitalSearchCriteria;
+import com.lifeline.openicu.entity.Hospital;
+import com.lifeline.openicu.realtime.hospital.HospitalChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class HospitalSearchCacheTest {
+
+    private final SearchCacheProperties properties = new SearchCacheProperties();
+    private final HospitalSearchCache cache = new HospitalSearchCache(properties);
+    private final AtomicInteger searches = new AtomicInteger();
+    private final Pageable firstPage = PageRequest.of(0, 10);
+
+    @Test
+    void equivalentSearchesShareAnEntry() {
+        cache.load(List.of(hospital(1L, "Pune", "Cardiology")));
+
+        Page<HospitalResponseDTO> first = search(criteria("Pune", "Cardiology, Oncology"));
+        Page<HospitalResponseDTO> second = search(criteria("pune", " oncology ; CARDIOLOGY"));
+
+        assertSame(first, second);
+        assertEquals(1, searches.get());
+        assertEquals(1L, cache.stats().get("hits"));
+    }
+
+    @Test
+    void changesOnlyDropTheSearchesTheyCanAffect() {
+        cache.load(List.of(hospital(1L, "Pune", "Cardiology"), hospital(2L, "Nagpur", "Oncology")));
+        search(criteria("pune", null));
+        search(criteria("nagpur", null));
+
+        // Hospital 1 is on the Pune page only
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(1L, "Pune", "Neurology"), "HOSPITAL_UPDATED"));
+        search(criteria("pune", null));
+        search(criteria("nagpur", null));
+        assertEquals(3, searches.get());
+
+        // A hospital moving into Nagpur changes that search's results
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(3L, "Nagpur", null), "HOSPITAL_CREATED"));
+        search(criteria("nagpur", null));
+        assertEquals(4, searches.get());
+
+        // Moving out of Pune affects the Pune search through the hospital's previous state
+        search(criteria("pune", null));
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(1L, "Mumbai", null), "HOSPITAL_UPDATED"));
+        search(criteria("pune", null));
+        assertEquals(5, searches.get());
+        assertEquals(3L, cache.stats().get("invalidations"));
+    }
+
+    @Test
+    void tagFiltersAreMatchedAsWholeTags() {
+        cache.load(List.of(hospital(1L, "Pune", "Cardiology")));
+        search(criteria(null, "Oncology"));
+
+        // Not an oncology hospital before or after, and not on the page
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(1L, "Pune", "Surgical Oncology"), "HOSPITAL_UPDATED"));
+        search(criteria(null, "Oncology"));
+        assertEquals(1, searches.get());
+
+        cache.onHospitalChanged(new HospitalChangedEvent(hospital(1L, "Pune", "Oncology"), "HOSPITAL_UPDATED"));
+        search(criteria(null, "Oncology"));
+        assertEquals(2, searches.get());
+    }
+
+    @Test
+    void leastRecentlyUsedAndExpiredEntriesAreDropped() throws InterruptedException {
+        properties.setMaxEntries(2);
+        search(criteria("a", null));
+        search(criteria("b", null));
+        search(criteria("a", null));
+        search(criteria("c", null));
+
+        // "b" was the least recently used
+        search(criteria("a", null));
+        search(criteria("b", null));
+        assertEquals(4, searches.get());
+        assertEquals(2L, cache.stats().get("evictions"));
+
+        properties.setTtl(Duration.ofMillis(1));
+        search(criteria("d", null));
+        Thread.sleep(5);
+        search(criteria("d", null));
+        assertEquals(6, searches.get());
+        assertEquals(1L, cache.stats().get("expirations"));
+    }
+
+    private Page<HospitalResponseDTO> search(HospitalSearchCriteria criteria) {
+        return cache.get(criteria, firstPage, () -> {
+            searches.incrementAndGet();
+            // The page lists hospital 1 whenever the search is for Pune
+            List<HospitalResponseDTO> content = "pune".equalsIgnoreCase(criteria.getState())
+                    ? List.of(response(1L)) : List.of();
+            return new PageImpl<>(content, firstPage, content.size());
+        });
+    }
+
+    private static HospitalSearchCriteria criteria(String state, String specialty) {
+        HospitalSearchCriteria criteria = new HospitalSearchCriteria();
+        criteria.setState(state);
+        criteria.setSpecialty(specialty);
+        return criteria;
+    }
+
+    private static HospitalResponseDTO response(Long id) {
+        HospitalResponseDTO response = new HospitalResponseDTO();
+        response.setId(id);
+        return response;
+    }
+
+    private static Hospital hospital(Long id, String state, String specialties) {
+        Hospital hospital = new Hospital();
+        hospital.setId(id);
+        hospital.setName("Hospital " + id);
+        hospital.setState(state);
+        hospital.setSpecialties(specialties);
+        return hospital;
+    }
+}